@@ -0,0 +1,110 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.BarrierType;
+
+/**
+  * Benchmark of barrier latency. Background threads join the barrier in a
+  * loop, so each operation of the benchmark thread is one barrier episode
+  * with all parties.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BarrierBenchmark {
+  @Param({"2", "4", "8", "16", "64"})
+  public int parties;  // number of threads that join the barrier
+
+  @Param({"MONITOR", "SPIN", "TREE", "DISSEMINATION"})
+  public BarrierType type;
+
+  private Barrier          barrier;
+  private Thread           threads[];
+  private long             episodes;  // episodes joined by thread 0
+  private volatile long    last;      // the last episode to be joined
+
+  @Setup
+  public void setUp() {
+    barrier  = type.create(parties);
+    threads  = new Thread[parties - 1];
+    episodes = 0;
+    last     = Long.MAX_VALUE;
+
+    // the benchmark thread joins as thread 0
+    for (int i = 0; i < threads.length; i++) {
+      final int id = i + 1;
+
+      threads[i] = new Thread() {
+        public void run() {
+          /*
+          The last episode is checked after each join, so a thread either
+          sees it and joins up to it, or it joins the next episode and sees
+          it then. Either way it leaves after the same episode as thread 0.
+          */
+          for (long n = 1; ; n++) {
+            barrier.join(id);
+            if (n >= last) {
+              break;
+            }
+          }
+        }
+      };
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    // one more episode releases background threads
+    last = episodes + 1;
+    barrier.join(0);
+
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join();
+    }
+  }
+
+  @Benchmark
+  public void join() {
+    barrier.join(0);
+    episodes++;
+  }
+}
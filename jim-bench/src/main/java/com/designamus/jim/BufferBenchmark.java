@@ -0,0 +1,81 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+  * Benchmarks of buffers that keep local elements of processors. Each
+  * operation adds a block of elements and pops them back.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferBenchmark {
+  @Param({"1024", "65536", "1048576"})
+  public int size;    // number of elements in a block
+
+  @Param({"2", "8", "64", "512"})
+  public int buckNo;  // number of buckets
+
+  @Param({"uniform", "zipf"})
+  public String dist;
+
+  private int             data[];
+  private PartitionBuffer partition;
+  private BucketsBuffer   buckets;
+
+  @Setup
+  public void setUp() {
+    data      = InputDistribution.forName(dist).generate(size, size, 1);
+    partition = new PartitionBuffer(size / 2);
+    buckets   = new BucketsBuffer(buckNo, 0, size - 1);
+  }
+
+  @Benchmark
+  public void partitionAddPop(Blackhole bh) {
+    partition.add(data);
+    bh.consume(partition.popLeft());
+    bh.consume(partition.popRight());
+  }
+
+  @Benchmark
+  public void bucketsAddPopExcept(Blackhole bh) {
+    buckets.add(data);
+    bh.consume(buckets.popExcept(0));
+    bh.consume(buckets.popExcept(-1));
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.designamus.jim.util.IntAcc;
+import com.designamus.jim.util.IntVectorAcc;
+import com.designamus.jim.util.ReduceOp;
+
+/**
+  * Benchmarks of one-to-all and all-to-all personalized communication,
+  * broadcast, single-node accumulation, all-reduce and scan engines.
+  * Reductions are measured for scalars and for vectors of size / 2^d
+  * elements.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommunicationBenchmark {
+  @Param({"1024", "1048576"})
+  public int size;  // size of the personalized message
+
+  @Param({"1", "2", "3", "4", "5", "6"})
+  public int d;     // dimension of hypercube, 2^d processors on a ring
+
+  @Param({"uniform"})
+  public String dist;
+
+  private int data[];  // personalized message
+  private int msg[];   // messages to be accumulated
+
+  // blocks of all-to-all exchange, the message split evenly between pairs
+  private int blocks[][][];
+
+  @Setup
+  public void setUp() {
+    int procNo = 1 << d;
+
+    data = InputDistribution.forName(dist).generate(size - size % procNo,
+                                                    size, 1);
+    msg  = InputDistribution.forName(dist).generate(procNo, size, 2);
+
+    int block = data.length / procNo / procNo;
+    blocks    = new int[procNo][procNo][];
+    for (int i = 0; i < procNo; i++) {
+      for (int j = 0; j < procNo; j++) {
+        int from = (i * procNo + j) * block;
+        blocks[i][j] = Arrays.copyOfRange(data, from, from + block);
+      }
+    }
+  }
+
+  /*
+  Return the personalized message split into vectors to be accumulated. They
+  are copied, because partial results are combined in place.
+  */
+  private IntVectorAcc[] vectors() {
+    int          procNo = 1 << d;
+    int          len    = data.length / procNo;
+    IntVectorAcc a[]    = new IntVectorAcc[procNo];
+
+    for (int i = 0; i < procNo; i++) {
+      int v[] = new int[len];
+      System.arraycopy(data, i * len, v, 0, len);
+      a[i] = new IntVectorAcc(v, ReduceOp.SUM);
+    }
+    return a;
+  }
+
+  @Benchmark
+  public void oneToAllPersonHyp() throws InterruptedException {
+    new OneToAllPersonHyp(NoOpListener.INSTANCE, data, d).join();
+  }
+
+  @Benchmark
+  public void oneToAllPersonRing() throws InterruptedException {
+    new OneToAllPersonRing(NoOpListener.INSTANCE, data, 1 << d).join();
+  }
+
+  @Benchmark
+  public void oneToAllPersonRingCutThrough() throws InterruptedException {
+    new OneToAllPersonRing(NoOpListener.INSTANCE, data, 1 << d,
+                           new EngineConfig().setRoutingMode(
+                             RoutingMode.CUT_THROUGH)).join();
+  }
+
+  @Benchmark
+  public void broadcastHyp() throws InterruptedException {
+    new BroadcastHyp(NoOpListener.INSTANCE, data, d,
+                     BroadcastMode.TREE).join();
+  }
+
+  @Benchmark
+  public void broadcastHypPipelined() throws InterruptedException {
+    new BroadcastHyp(NoOpListener.INSTANCE, data, d,
+                     BroadcastMode.PIPELINED).join();
+  }
+
+  @Benchmark
+  public void broadcastRing() throws InterruptedException {
+    new BroadcastRing(NoOpListener.INSTANCE, data, 1 << d,
+                      BroadcastMode.TREE).join();
+  }
+
+  @Benchmark
+  public void broadcastRingPipelined() throws InterruptedException {
+    new BroadcastRing(NoOpListener.INSTANCE, data, 1 << d,
+                      BroadcastMode.PIPELINED).join();
+  }
+
+  @Benchmark
+  public void allToAllPersonHyp() throws InterruptedException {
+    new AllToAllPersonHyp(NoOpListener.INSTANCE, blocks, d).join();
+  }
+
+  @Benchmark
+  public void allToAllPersonRing() throws InterruptedException {
+    new AllToAllPersonRing(NoOpListener.INSTANCE, blocks, 1 << d).join();
+  }
+
+  @Benchmark
+  public void singleNodeAccHyp() throws InterruptedException {
+    new SingleNodeAccHyp<IntAcc>(NoOpListener.INSTANCE,
+                                 IntAcc.of(msg, ReduceOp.SUM.intOp()),
+                                 d).join();
+  }
+
+  @Benchmark
+  public void singleNodeAccRing() throws InterruptedException {
+    new SingleNodeAccRing<IntAcc>(NoOpListener.INSTANCE,
+                                  IntAcc.of(msg, ReduceOp.SUM.intOp()),
+                                  1 << d).join();
+  }
+
+  @Benchmark
+  public void singleNodeAccHypVector() throws InterruptedException {
+    new SingleNodeAccHyp<IntVectorAcc>(NoOpListener.INSTANCE, vectors(),
+                                       d).join();
+  }
+
+  @Benchmark
+  public void allReduceHypVector() throws InterruptedException {
+    new AllReduceHyp<IntVectorAcc>(NoOpListener.INSTANCE, vectors(),
+                                   d).join();
+  }
+
+  @Benchmark
+  public void allReduceVectorHyp() throws InterruptedException {
+    new AllReduceVectorHyp<IntVectorAcc>(NoOpListener.INSTANCE, vectors(),
+                                         d).join();
+  }
+
+  @Benchmark
+  public void scanHypVector() throws InterruptedException {
+    new ScanHyp<IntVectorAcc>(NoOpListener.INSTANCE, vectors(), d).join();
+  }
+
+  @Benchmark
+  public void scanRingVector() throws InterruptedException {
+    new ScanRing<IntVectorAcc>(NoOpListener.INSTANCE, vectors(),
+                               1 << d).join();
+  }
+}
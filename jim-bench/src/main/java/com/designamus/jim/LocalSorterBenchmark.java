@@ -0,0 +1,96 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.designamus.jim.util.LocalSorter;
+import com.designamus.jim.util.LocalSorters;
+
+/**
+  * Benchmarks of local sorters used by processors to sort their elements in
+  * the final phase of sort engines.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalSorterBenchmark {
+  @Param({"1024", "65536", "1048576"})
+  public int size;
+
+  @Param({"256", "1048576"})
+  public int range;  // elements are drawn from [0, range)
+
+  @Param({"quick", "radix", "counting", "select"})
+  public String sorter;
+
+  @Param({"uniform"})
+  public String dist;
+
+  private int         input[];
+  private int         data[];
+  private LocalSorter s;
+
+  @Setup
+  public void setUp() {
+    input = InputDistribution.forName(dist).generate(size, range, 1);
+    data  = new int[size];
+
+    if (sorter.equals("quick")) {
+      s = LocalSorters.QUICK_SORT;
+    }
+    else if (sorter.equals("radix")) {
+      s = LocalSorters.RADIX_SORT;
+    }
+    else if (sorter.equals("counting")) {
+      s = LocalSorters.COUNTING_SORT;
+    }
+    else {
+      s = LocalSorters.select(size, 0, range - 1);
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void refill() {
+    System.arraycopy(input, 0, data, 0, size);
+  }
+
+  @Benchmark
+  public int[] sort() {
+    s.sort(data, 0, data.length);
+    return data;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+  * Benchmarks of parallel sort engines. Each operation sorts the whole input
+  * sequence, including start of processors threads.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortBenchmark {
+  @Param({"65536", "1048576"})
+  public int size;  // input sequence size
+
+  @Param({"1", "2", "3", "4", "5"})
+  public int d;     // dimension of hypercube, 2^d processors on a ring
+
+  @Param({"uniform", "zipf", "sorted"})
+  public String dist;
+
+  private int seq[];
+  private int pivot;
+
+  @Setup
+  public void setUp() {
+    int n = size - size % (1 << d);
+    seq   = InputDistribution.forName(dist).generate(n, size, 1);
+    pivot = seq[seq.length / 2];
+  }
+
+  @Benchmark
+  public void pqsort() throws InterruptedException {
+    new PQuickSort(NoOpListener.INSTANCE, seq, pivot, d).join();
+  }
+
+  @Benchmark
+  public void pqsortMedian() throws InterruptedException {
+    new PQuickSort(NoOpListener.INSTANCE, seq, d, new EngineConfig()).join();
+  }
+
+  @Benchmark
+  public void pbsort() throws InterruptedException {
+    new PBucketSort(NoOpListener.INSTANCE, seq, 0, size - 1, 1 << d).join();
+  }
+
+  @Benchmark
+  public void pbsortCutThrough() throws InterruptedException {
+    new PBucketSort(NoOpListener.INSTANCE, seq, 0, size - 1, 1 << d,
+                    new EngineConfig().setRoutingMode(
+                      RoutingMode.CUT_THROUGH)).join();
+  }
+
+  @Benchmark
+  public void pssort() throws InterruptedException {
+    new PSampleSort(NoOpListener.INSTANCE, seq, 1 << d).join();
+  }
+}
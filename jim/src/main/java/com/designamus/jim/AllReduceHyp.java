@@ -0,0 +1,140 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+
+/**
+  * This class implements engine of all-reduce on a hypercube by recursive
+  * doubling. In phase i each processor swaps its partial result with the
+  * neighbour along ith link and combines both, so after d phases every
+  * processor holds the result of the whole reduction.
+  * <p>
+  * Processors on both sides of a link combine partial results in the order of
+  * labels, so they end up with the same value even if the operator isn't
+  * commutative.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+class AllReduceHyp<A extends Acc<A>> {
+  private AllReduceListener<? super A> listener;  // this algorithm listener
+  private int                   d;         // dimension of hypercube
+  private int                   procNo;    // number of processors
+  private Processor[]           threads;   // processors
+  private Barrier               barrier;   // used to synchronize threads
+  private Thread[]              runners;   // threads that run processors
+  private Traffic               traffic;   // counters of messages sent
+  private PhaseMetrics          metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;  // unique processor label
+
+    /*
+    Initially it holds a message to be contributed to the result. Finally it
+    holds the result.
+    */
+    A acc;
+
+    /*
+    Copy of the partial result sent in the current phase. The neighbour reads
+    it while acc is being combined, it's written again only after the barrier.
+    */
+    A out;
+
+    Channel<A>[] in;  // incoming links, one for each dimension
+
+    @SuppressWarnings("unchecked")
+    Processor(int id, A msg) {
+      this.id = id;
+      acc     = msg;
+      out     = msg.copy();
+      in      = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<A>();
+      }
+    }
+
+    public void run() {
+      listener.procInited(id, acc);
+
+      for (int i = 0; i < d; i++) {
+        // label of the neighbour along ith link
+        int dest = id ^ (1 << i);
+
+        out.set(acc);
+        threads[dest].in[i].send(out);
+        traffic.sent(id, i + 1, Traffic.words(out));
+
+        // the partial result of the neighbour covers the adjacent labels
+        if ((id & (1 << i)) == 0) {
+          acc.combine(in[i].receive());
+        }
+        else {
+          acc.combineLeft(in[i].receive());
+        }
+
+        listener.procAcc(id, dest, i + 1, acc);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i + 1, i == (d - 1));
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  AllReduceHyp(AllReduceListener<? super A> listener, A msg[], int d) {
+    this(listener, msg, d, new EngineConfig());
+  }
+
+  // Processor is an inner class, so its array can only be created raw.
+  @SuppressWarnings("unchecked")
+  AllReduceHyp(AllReduceListener<? super A> listener, A msg[], int d,
+               EngineConfig config) {
+    this.listener = listener;
+    this.d        = d;
+    procNo        = 1 << d;
+    threads       = (Processor[])new AllReduceHyp.Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i, msg[i]);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.VectorAcc;
+
+/**
+  * This class implements engine of all-reduce of vectors on a hypercube by
+  * reduce-scatter followed by all-gather. Vectors are split into 2^d segments.
+  * In the first d phases each processor halves the range of segments it's
+  * responsible for and reduces it with the neighbour along ith link, so it
+  * ends up with one segment of the result. In the last d phases the segments
+  * are gathered back in the reverse order of links.
+  * <p>
+  * Each processor takes in about 2m elements of vectors of m elements instead
+  * of m log p by recursive doubling. Segments are read straight from vectors
+  * of neighbours, which don't change them in the same phase.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class AllReduceVectorHyp<A extends VectorAcc<A>> {
+  private AllReduceListener<? super A> listener;  // this algorithm listener
+  private int                   d;         // dimension of hypercube
+  private int                   procNo;    // number of processors
+  private int                   length;    // number of elements of vectors
+  private Processor[]           threads;   // processors
+  private Barrier               barrier;   // used to synchronize threads
+  private Thread[]              runners;   // threads that run processors
+  private Traffic               traffic;   // counters of messages sent
+  private PhaseMetrics          metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;  // unique processor label
+
+    /*
+    Initially it holds a vector to be contributed to the result. Finally it
+    holds the result.
+    */
+    A acc;
+
+    Channel<A>[] in;  // incoming links, one for each dimension
+
+    @SuppressWarnings("unchecked")
+    Processor(int id, A msg) {
+      this.id = id;
+      acc     = msg;
+      in      = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<A>();
+      }
+    }
+
+    public void run() {
+      listener.procInited(id, acc);
+
+      int lo  = 0;       // first segment the processor is responsible for
+      int len = procNo;  // number of segments it's responsible for
+
+      // reduce-scatter, the partial result is valid within the range only
+      for (int i = 0; i < d; i++) {
+        // label of the neighbour along ith link
+        int dest = id ^ (1 << i);
+
+        // keep the lower half of the range if ith bit is 0
+        len >>= 1;
+        if ((id & (1 << i)) != 0) {
+          lo += len;
+        }
+
+        // the neighbour needs the other half of the range
+        int other = ((id & (1 << i)) == 0) ? lo + len : lo - len;
+
+        threads[dest].in[i].send(acc);
+        traffic.sent(id, i + 1, bound(other + len) - bound(other));
+
+        // the partial result of the neighbour covers the adjacent labels
+        if ((id & (1 << i)) == 0) {
+          acc.combine(in[i].receive(), bound(lo), bound(lo + len));
+        }
+        else {
+          acc.combineLeft(in[i].receive(), bound(lo), bound(lo + len));
+        }
+
+        listener.procAcc(id, dest, i + 1, acc);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i + 1, false);
+        metrics.phaseDone(id);
+      }
+
+      // all-gather, the neighbour holds the other half of the range
+      for (int i = d - 1; i >= 0; i--) {
+        int dest  = id ^ (1 << i);
+        int from  = ((id & (1 << i)) == 0) ? lo + len : lo - len;
+        int phase = 2 * d - i;
+
+        threads[dest].in[i].send(acc);
+        traffic.sent(id, phase, bound(lo + len) - bound(lo));
+        acc.set(in[i].receive(), bound(from), bound(from + len));
+
+        lo   = Math.min(lo, from);
+        len <<= 1;
+
+        listener.procGathered(id, dest, phase, acc);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(phase, i == 0);
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  AllReduceVectorHyp(AllReduceListener<? super A> listener, A msg[], int d) {
+    this(listener, msg, d, new EngineConfig());
+  }
+
+  // Processor is an inner class, so its array can only be created raw.
+  @SuppressWarnings("unchecked")
+  AllReduceVectorHyp(AllReduceListener<? super A> listener, A msg[], int d,
+                     EngineConfig config) {
+    this.listener = listener;
+    this.d        = d;
+    procNo        = 1 << d;
+    length        = msg[0].length();
+    threads       = (Processor[])new AllReduceVectorHyp.Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i, msg[i]);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Return the index of the first element of a given segment.
+  private int bound(int segment) {
+    return (int)((long)segment * length / procNo);
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+
+/**
+  * This class implements engine of all to all personalized communication on a
+  * hypercube with the pairwise exchange schedule. In phase j processor k
+  * swaps blocks with processor k XOR j. With e-cube routing the paths used
+  * in a phase don't share links, so p - 1 phases carry the blocks without
+  * contention.
+  * <p>
+  * Blocks aren't copied, a processor receives the array of the sender. Blocks
+  * must not be changed while the engine runs.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class AllToAllPersonHyp {
+  private AllToAllPersonListener listener;  // this algorithm listener
+  private int[][][]              blocks;    // blocks of each processor
+  private int                    procNo;    // number of processors
+  private Processor[]            threads;   // processors
+  private Barrier                barrier;   // used to synchronize threads
+  private Thread[]               runners;   // threads that run processors
+  private Traffic                traffic;   // counters of messages sent
+  private PhaseMetrics           metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;            // unique processor label
+    int received[][];  // blocks received from each processor
+
+    /*
+    Incoming link. Exactly one block arrives in each phase and senders of
+    subsequent phases are separated by the barrier.
+    */
+    Channel<int[]> in = new Channel<int[]>();
+
+    Processor(int id) {
+      this.id  = id;
+      received = new int[procNo][];
+
+      // the block for itself doesn't go anywhere
+      received[id] = blocks[id][id];
+    }
+
+    public void run() {
+      listener.procInited(id, blocks[id]);
+
+      for (int j = 1; j < procNo; j++) {
+        // processors of a pair swap their blocks
+        int partner = id ^ j;
+
+        threads[partner].in.send(blocks[id][partner]);
+        traffic.sent(id, j, blocks[id][partner].length);
+        received[partner] = in.receive();
+
+        listener.procReceived(id, partner, j, received[partner]);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(j, j == (procNo - 1));
+        metrics.phaseDone(id);
+      }
+      listener.procFinished(id, received);
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  AllToAllPersonHyp(AllToAllPersonListener listener, int blocks[][][],
+                    int d) {
+    this(listener, blocks, d, new EngineConfig());
+  }
+
+  AllToAllPersonHyp(AllToAllPersonListener listener, int blocks[][][],
+                    int d, EngineConfig config) {
+    this.listener = listener;
+    this.blocks   = blocks;
+    procNo        = 1 << d;
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,432 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.IntSlice;
+import com.designamus.jim.util.IntView;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.SwingUtilities;
+
+/**
+  * This class passes callbacks of engines to a listener of the GUI without
+  * holding processors up. Processors threads store events in a ring of slots
+  * allocated up front and return at once. A consumer thread takes events in
+  * the order they were stored and hands them over to the event dispatch
+  * thread in batches, so the listener runs on the EDT and may update Swing
+  * components directly. Processors wait only if the ring is full.
+  * <p>
+  * A run is shown step by step: the consumer stops before the first event of
+  * each phase, and before sorted blocks are shown, until step() is called.
+  * Partial results are changed by engines later, so they are copied when an
+  * event is stored. Views of buffers are passed as snapshots, copied only
+  * when the processor changes its buffer. Arrays and slices passed by
+  * engines aren't changed, so they are passed as they are.
+  * <p>
+  * Engines run without visualization get NoOpListener, they never go through
+  * this class.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.5 10/18/26
+  */
+class AsyncListener implements PQuickSortListener, PBucketSortListener,
+                               OneToAllPersonListener,
+                               SingleNodeAccListener<Object> {
+  private static final int CAPACITY = 1 << 12;  // slots of the ring
+  private static final int MASK     = CAPACITY - 1;
+
+  // step of events shown after all phases, and of events shown at once
+  private static final int LAST = Integer.MAX_VALUE;
+  private static final int NONE = -1;
+
+  // kinds of events, one for each callback
+  private enum Kind {
+    PROC_INITED,
+    SOURCE_INITED,
+    ACC_INITED,
+    PIVOT_SELECTED,
+    SENT_LEFT,
+    SENT_RIGHT,
+    SENT_BUCKET,
+    SENT_SLICE,
+    PROC_ACC,
+    SPLIT_COMPLETED,
+    PHASE_COMPLETED,
+    PROC_FINISHED,
+    FINISHED
+  }
+
+  // Slot of the ring, arguments of a callback.
+  private static class Event {
+    volatile long seq = -1;  // number of the event stored, set last
+
+    Kind    kind;
+    int     id;     // processor that has called back
+    int     other;  // the other processor, or the pivot
+    int     count;  // number of elements sent
+    int     phase;  // phase or split, 0 before the first one
+    boolean last;   // set in the last phase
+    Object  x, y;   // data of the callback
+
+    void set(Event e) {
+      kind  = e.kind;
+      id    = e.id;
+      other = e.other;
+      count = e.count;
+      phase = e.phase;
+      last  = e.last;
+      x     = e.x;
+      y     = e.y;
+    }
+  }
+
+  private final Object     target;   // listener of the GUI
+  private final Event      slots[];  // ring of events
+  private final Event      batch[];  // events handed over to the EDT
+  private int              size;     // number of events in the batch
+  private int              step;     // phase shown, used by the consumer
+  private final AtomicLong claimed;  // number of slots taken by processors
+  private volatile long    head;     // number of events taken by the consumer
+  private volatile boolean parked;   // set while the consumer is parked
+  private volatile boolean closed;   // set when events aren't wanted any more
+  private final Semaphore  steps;    // steps allowed to be shown
+  private final Thread     consumer;
+
+  // delivers events of the batch, run on the EDT
+  private final Runnable delivery = new Runnable() {
+    public void run() {
+      for (int i = 0; i < size; i++) {
+        deliver(batch[i]);
+      }
+    }
+  };
+
+  /*
+  Create a bus that delivers events to a given listener, which implements
+  the listener interface of the engine it's passed to.
+  */
+  AsyncListener(Object target) {
+    this.target = target;
+    slots       = new Event[CAPACITY];
+    batch       = new Event[CAPACITY];
+    for (int i = 0; i < CAPACITY; i++) {
+      slots[i] = new Event();
+      batch[i] = new Event();
+    }
+    claimed     = new AtomicLong();
+    steps       = new Semaphore(0);
+
+    consumer = new Thread(new Runnable() {
+      public void run() {
+        consume();
+      }
+    }, "Events");
+    consumer.setDaemon(true);
+    consumer.start();
+  }
+
+  // Let the consumer show the next step.
+  void step() {
+    steps.release();
+  }
+
+  /*
+  Stop delivering events, e.g. when the dialog is closed. Processors may still
+  be running, nothing takes events from the ring any more, so they drop them
+  from now on instead of waiting for free slots.
+  */
+  void close() {
+    if (!closed) {
+      closed = true;
+      steps.release(CAPACITY);
+      consumer.interrupt();
+    }
+  }
+
+  // Store an event that passes a number of elements sent.
+  private void post(Kind kind, int id, int other, int phase, int count,
+                    Object x) {
+    post(kind, id, other, phase, false, count, x, null);
+  }
+
+  private void post(Kind kind, int id, int other, int phase, boolean last,
+                    Object x, Object y) {
+    post(kind, id, other, phase, last, 0, x, y);
+  }
+
+  // Store an event in the next slot, wait only if the ring is full.
+  private void post(Kind kind, int id, int other, int phase, boolean last,
+                    int count, Object x, Object y) {
+    if (closed) {
+      return;
+    }
+
+    long s = claimed.getAndIncrement();
+    while (s - head >= CAPACITY) {
+      if (closed) {
+        return;
+      }
+      Thread.yield();
+    }
+
+    Event e = slots[(int)s & MASK];
+    e.kind  = kind;
+    e.id    = id;
+    e.other = other;
+    e.count = count;
+    e.phase = phase;
+    e.last  = last;
+    e.x     = x;
+    e.y     = y;
+    e.seq   = s;  // publishes the event
+
+    if (parked) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  /*
+  Take events in the order of slots and hand them over to the EDT. A batch
+  ends when it's full, when there are no more events stored or when the next
+  one starts a new step, which waits until it's allowed.
+  */
+  private void consume() {
+    try {
+      for (long next = 0; ; ) {
+        Event e = slots[(int)next & MASK];
+        await(e, next);
+
+        size = 0;
+        while (e.seq == next && size < CAPACITY) {
+          int s = stepOf(e);
+          if (s > step) {
+            if (size > 0) {
+              break;
+            }
+            steps.acquire();
+            step = s;
+          }
+
+          // the slot is released as soon as the event is copied
+          batch[size++].set(e);
+          e.x  = null;
+          e.y  = null;
+          head = ++next;
+          e    = slots[(int)next & MASK];
+        }
+
+        SwingUtilities.invokeAndWait(delivery);
+      }
+    }
+    catch (InterruptedException e) {
+    }
+    catch (InvocationTargetException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  // Wait until a given event is stored in a slot.
+  private void await(Event e, long seq) throws InterruptedException {
+    /*
+    The consumer is marked parked before the slot is checked again, so the
+    processor either sees it and unparks it or the consumer sees the event.
+    */
+    parked = true;
+    while (e.seq != seq) {
+      LockSupport.park(this);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+    parked = false;
+  }
+
+  // Return the step an event is shown in.
+  private static int stepOf(Event e) {
+    switch (e.kind) {
+      case PROC_FINISHED:
+        return LAST;
+      case FINISHED:
+        return NONE;
+      default:
+        return e.phase;
+    }
+  }
+
+  /*
+  Take a snapshot of a view that is valid only during the callback. Buffers
+  copy it only when they change next, so the processor doesn't copy a buffer
+  it leaves as it is.
+  */
+  private static IntView snapshot(IntView view) {
+    return view.snapshot();
+  }
+
+  // Call the listener back, run on the EDT.
+  @SuppressWarnings("unchecked")
+  private void deliver(Event e) {
+    switch (e.kind) {
+      case PROC_INITED:
+        if (target instanceof PQuickSortListener) {
+          ((PQuickSortListener)target).procInited(e.id, (IntView)e.x);
+        }
+        else {
+          ((PBucketSortListener)target).procInited(e.id, (IntView)e.x);
+        }
+        break;
+
+      case SOURCE_INITED:
+        ((OneToAllPersonListener)target).sourceInited(e.id, (IntSlice)e.x);
+        break;
+
+      case ACC_INITED:
+        ((SingleNodeAccListener<Object>)target).procInited(e.id, e.x);
+        break;
+
+      case PIVOT_SELECTED:
+        ((PQuickSortListener)target).pivotSelected(e.id, e.phase, e.other);
+        break;
+
+      case SENT_LEFT:
+        ((PQuickSortListener)target).procSentLeft(e.id, e.other, e.phase,
+                                                   (IntView)e.x, e.count);
+        break;
+
+      case SENT_RIGHT:
+        ((PQuickSortListener)target).procSentRight(e.id, e.other, e.phase,
+                                                    (IntView)e.x, e.count);
+        break;
+
+      case SENT_BUCKET:
+        ((PBucketSortListener)target).procSent(e.id, e.other, e.phase,
+                                               (IntView)e.x, (int[])e.y);
+        break;
+
+      case SENT_SLICE:
+        ((OneToAllPersonListener)target).procSent(e.id, e.other, e.phase,
+                                                  (IntSlice)e.x,
+                                                  (IntSlice)e.y);
+        break;
+
+      case PROC_ACC:
+        ((SingleNodeAccListener<Object>)target).procAcc(e.id, e.other,
+                                                        e.phase, e.x);
+        break;
+
+      case SPLIT_COMPLETED:
+        ((PQuickSortListener)target).splitCompleted(e.phase);
+        break;
+
+      case PHASE_COMPLETED:
+        if (target instanceof PBucketSortListener) {
+          ((PBucketSortListener)target).phaseCompleted(e.phase);
+        }
+        else if (target instanceof OneToAllPersonListener) {
+          ((OneToAllPersonListener)target).phaseCompleted(e.phase, e.last);
+        }
+        else {
+          ((SingleNodeAccListener<Object>)target).phaseCompleted(e.phase,
+                                                                 e.last);
+        }
+        break;
+
+      case PROC_FINISHED:
+        if (target instanceof PQuickSortListener) {
+          ((PQuickSortListener)target).procFinished(e.id, (int[])e.x);
+        }
+        else {
+          ((PBucketSortListener)target).procFinished(e.id, (int[])e.x);
+        }
+        break;
+
+      case FINISHED:
+        if (target instanceof OneToAllPersonListener) {
+          ((OneToAllPersonListener)target).finished();
+        }
+        else {
+          ((SingleNodeAccListener<Object>)target).finished();
+        }
+        break;
+    }
+  }
+
+  /*
+  Listeners implementation, called by processors threads.
+  */
+
+  public void procInited(int id, IntView data) {
+    post(Kind.PROC_INITED, id, 0, 0, false, snapshot(data), null);
+  }
+
+  public void sourceInited(int id, IntSlice msg) {
+    post(Kind.SOURCE_INITED, id, 0, 0, false, msg, null);
+  }
+
+  public void procInited(int id, Object msg) {
+    post(Kind.ACC_INITED, id, 0, 0, false, ((Acc<?>)msg).copy(), null);
+  }
+
+  public void pivotSelected(int id, int split, int pivot) {
+    post(Kind.PIVOT_SELECTED, id, pivot, split, false, null, null);
+  }
+
+  public void procSentLeft(int id, int to, int split, IntView data,
+                           int sent) {
+    post(Kind.SENT_LEFT, id, to, split, sent, snapshot(data));
+  }
+
+  public void procSentRight(int id, int to, int split, IntView data,
+                            int sent) {
+    post(Kind.SENT_RIGHT, id, to, split, sent, snapshot(data));
+  }
+
+  public void procSent(int id, int to, int phase, IntView buff, int data[]) {
+    post(Kind.SENT_BUCKET, id, to, phase, false, snapshot(buff), data);
+  }
+
+  public void procSent(int id, int to, int phase, IntSlice buff,
+                       IntSlice msg) {
+    post(Kind.SENT_SLICE, id, to, phase, false, buff, msg);
+  }
+
+  public void procAcc(int id, int from, int phase, Object acc) {
+    post(Kind.PROC_ACC, id, from, phase, false, ((Acc<?>)acc).copy(), null);
+  }
+
+  public void splitCompleted(int split) {
+    post(Kind.SPLIT_COMPLETED, 0, 0, split, false, null, null);
+  }
+
+  public void phaseCompleted(int phase) {
+    post(Kind.PHASE_COMPLETED, 0, 0, phase, false, null, null);
+  }
+
+  public void phaseCompleted(int phase, boolean last) {
+    post(Kind.PHASE_COMPLETED, 0, 0, phase, last, null, null);
+  }
+
+  public void procFinished(int id, int sorted[]) {
+    post(Kind.PROC_FINISHED, id, 0, 0, false, sorted, null);
+  }
+
+  public void finished() {
+    post(Kind.FINISHED, 0, 0, 0, false, null, null);
+  }
+}
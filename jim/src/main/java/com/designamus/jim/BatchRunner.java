@@ -0,0 +1,1093 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.BarrierType;
+import com.designamus.jim.util.DoubleAcc;
+import com.designamus.jim.util.DoubleVectorAcc;
+import com.designamus.jim.util.ExecutionMode;
+import com.designamus.jim.util.IntAcc;
+import com.designamus.jim.util.IntSlice;
+import com.designamus.jim.util.IntVectorAcc;
+import com.designamus.jim.util.LongAcc;
+import com.designamus.jim.util.LongVectorAcc;
+import com.designamus.jim.util.ReduceOp;
+import com.designamus.jim.util.VectorAcc;
+
+/**
+  * This class runs algorithms without GUI. An algorithm is run to completion
+  * with a generated input sequence and the time of each phase is reported.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.3 10/18/26
+  */
+class BatchRunner {
+  // names of algorithms
+  static final String PQSORT          = "pqsort";
+  static final String PBSORT          = "pbsort";
+  static final String PSSORT          = "pssort";
+  static final String O2A_PERSON_HYP  = "o2a-person-hyp";
+  static final String O2A_PERSON_RING = "o2a-person-ring";
+  static final String S_NODE_ACC_HYP  = "s-node-acc-hyp";
+  static final String S_NODE_ACC_RING = "s-node-acc-ring";
+  static final String O2A_PERSON      = "o2a-person";
+  static final String S_NODE_ACC      = "s-node-acc";
+  static final String ALL_REDUCE_HYP  = "all-reduce-hyp";
+  static final String ALL_REDUCE_VEC  = "all-reduce-vec-hyp";
+  static final String SCAN_HYP        = "scan-hyp";
+  static final String SCAN_RING       = "scan-ring";
+  static final String BCAST_HYP       = "bcast-hyp";
+  static final String BCAST_RING      = "bcast-ring";
+  static final String A2A_PERSON_HYP  = "a2a-person-hyp";
+  static final String A2A_PERSON_RING = "a2a-person-ring";
+
+  private static final String USAGE =
+    "usage: jim -alg <algorithm> [options]\n" +
+    "\n" +
+    "algorithms:\n" +
+    "  " + PQSORT + "           parallel quick sort on a hypercube\n" +
+    "  " + PBSORT + "           parallel bucket sort on a ring\n" +
+    "  " + PSSORT + "           parallel sorting by regular sampling\n" +
+    "  " + O2A_PERSON_HYP + "   one-to-all personalized communication on a " +
+    "hypercube\n" +
+    "  " + O2A_PERSON_RING + "  one-to-all personalized communication on a " +
+    "ring\n" +
+    "  " + S_NODE_ACC_HYP + "   single-node accumulation on a hypercube\n" +
+    "  " + S_NODE_ACC_RING + "  single-node accumulation on a ring\n" +
+    "  " + O2A_PERSON + "       one-to-all personalized communication on " +
+    "any topology\n" +
+    "  " + S_NODE_ACC + "       single-node accumulation on any topology\n" +
+    "  " + ALL_REDUCE_HYP + "   all-reduce on a hypercube by recursive " +
+    "doubling\n" +
+    "  " + ALL_REDUCE_VEC + "  all-reduce of vectors on a hypercube by " +
+    "reduce-scatter\n" +
+    "                     and all-gather, requires -vlen\n" +
+    "  " + SCAN_HYP + "         prefix sums on a hypercube\n" +
+    "  " + SCAN_RING + "        pipelined prefix sums on a ring\n" +
+    "  " + BCAST_HYP + "        one-to-all broadcast on a hypercube\n" +
+    "  " + BCAST_RING + "       one-to-all broadcast on a ring\n" +
+    "  " + A2A_PERSON_HYP + "   all-to-all personalized communication on a " +
+    "hypercube\n" +
+    "  " + A2A_PERSON_RING + "  all-to-all personalized communication on a " +
+    "ring\n" +
+    "\n" +
+    "options:\n" +
+    "  -n <size>          input sequence (message) size, default 1048576\n" +
+    "  -p <procs>         number of processors, default 8\n" +
+    "  -dist <name>       input distribution: uniform, gaussian, zipf,\n" +
+    "                     few-unique, sorted or reversed, default uniform\n" +
+    "  -range <max>       elements are drawn from [0, max), default size\n" +
+    "  -seed <seed>       random seed, default 1\n" +
+    "  -runs <count>      number of runs, default 1\n" +
+    "  -barrier <type>    barrier: monitor, spin, tree or dissemination,\n" +
+    "                     default monitor\n" +
+    "  -threads <mode>    platform or virtual threads, default platform\n" +
+    "  -pivot <strategy>  pivot of " + PQSORT + ": median (chosen by each " +
+    "subcube\n" +
+    "                     in every split) or random, default median\n" +
+    "  -topology <name>   topology of " + O2A_PERSON + " and " + S_NODE_ACC +
+    ": ring,\n" +
+    "                     hypercube, mesh or torus, default hypercube\n" +
+    "  -op <operator>     operator of reduction: sum, min, max or xor,\n" +
+    "                     default sum\n" +
+    "  -type <type>       values reduced: int, long or double, default " +
+    "int\n" +
+    "  -vlen <length>     each processor contributes a vector of a given\n" +
+    "                     length instead of a single value, default 0\n" +
+    "  -scan <kind>       prefix sums: inclusive or exclusive, default " +
+    "inclusive\n" +
+    "  -bcast <mode>      broadcast: tree or pipelined (chunks over " +
+    "edge-disjoint\n" +
+    "                     spanning trees), default tree\n" +
+    "  -routing <mode>    routing of " + PBSORT + " and " + O2A_PERSON_RING +
+    ": sf\n" +
+    "                     (store-and-forward), ct (cut-through) or both " +
+    "to\n" +
+    "                     compare them, default sf\n" +
+    "  -flit <size>       elements of a flit in the cut-through mode, " +
+    "default 1024\n" +
+    "  -model <params>    print traffic of phases and their time modeled " +
+    "as\n" +
+    "                     ts + tw * m per message: calibrate (measure ts " +
+    "and\n" +
+    "                     tw on this host) or <ts>,<tw> in us and ns/word\n" +
+    "  -metrics <file>    write compute, barrier wait and callback times " +
+    "of\n" +
+    "                     each processor in each phase to a file, as JSON " +
+    "if\n" +
+    "                     its name ends with .json, as CSV otherwise\n";
+
+  // types of values reduced
+  private enum ValueType {
+    INT,
+    LONG,
+    DOUBLE
+  }
+
+  private String            alg;                                 // algorithm
+  private int               size   = 1 << 20;                    // input size
+  private int               procNo = 8;                          // processors
+  private InputDistribution dist   = InputDistribution.UNIFORM;  // input
+  private int               range  = -1;                         // values
+  private long              seed   = 1;                          // random seed
+  private int               runs   = 1;                          // repetitions
+  private EngineConfig      config = new EngineConfig();         // settings
+  private boolean           median = true;                       // pivots
+  private TopologyType      topo   = TopologyType.HYPERCUBE;     // network
+  private ReduceOp          op     = ReduceOp.SUM;               // operator
+  private ValueType         type   = ValueType.INT;              // values
+  private int               vlen   = 0;                          // vectors
+  private BroadcastMode     bcast  = BroadcastMode.TREE;         // broadcast
+  private boolean           excl   = false;                      // prefixes
+  private boolean           both   = false;                      // routings
+  private boolean           calib  = false;                      // model
+  private CostModel         model;     // set if traffic is to be modeled
+  private String            metricsFile;  // set if times are to be written
+  private PrintWriter       metricsOut;   // writer of times of phases
+  private int               run;          // number of runs so far
+  private Topology          topology;  // created for algorithms on any network
+
+  /*
+  This class implements listeners of all algorithms. It doesn't block threads
+  and only records the time each phase has been completed at.
+  */
+  private class Recorder extends NoOpListener {
+    AtomicLongArray phaseEnd;    // time the first processor completed phase
+    int             sorted[][];  // sorted blocks of processors
+    IntSlice        held[];      // messages held by processors
+    int             recv[][][];  // blocks received by processors
+
+    Recorder(int phases) {
+      phaseEnd = new AtomicLongArray(phases + 1);
+      sorted   = new int[procNo][];
+      held     = new IntSlice[procNo];
+      recv     = new int[procNo][][];
+    }
+
+    private void phaseDone(int phase) {
+      phaseEnd.compareAndSet(phase, 0, System.nanoTime());
+    }
+
+    public void sourceInited(int id, IntSlice msg) {
+      held[id] = msg;
+    }
+
+    // Phases are separated by barriers, so updates of a slot don't race.
+    public void procSent(int id, int to, int phase, IntSlice buff,
+                         IntSlice msg) {
+      held[id] = buff;
+      held[to] = msg;
+    }
+
+    public void splitCompleted(int split) {
+      phaseDone(split);
+    }
+
+    public void phaseCompleted(int phase) {
+      phaseDone(phase);
+    }
+
+    public void phaseCompleted(int phase, boolean last) {
+      phaseDone(phase);
+    }
+
+    public void procFinished(int id, int sorted[]) {
+      this.sorted[id] = sorted;
+    }
+
+    public void procFinished(int id, IntSlice msg) {
+      held[id] = msg;
+    }
+
+    public void procFinished(int id, int received[][]) {
+      recv[id] = received;
+    }
+  }
+
+  // Main entry point of the batch mode.
+  static void main(String args[]) {
+    System.setProperty("java.awt.headless", "true");
+
+    BatchRunner runner = new BatchRunner();
+    try {
+      runner.parse(args);
+    }
+    catch (IllegalArgumentException e) {
+      System.err.println("jim: " + e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+    }
+
+    try {
+      runner.openMetrics();
+    }
+    catch (IOException e) {
+      System.err.println("jim: cannot write " + runner.metricsFile + ": " +
+                         e.getMessage());
+      System.exit(1);
+    }
+
+    try {
+      if (runner.calib) {
+        runner.model = CostModel.calibrate();
+      }
+      for (int i = 0; i < runner.runs; i++) {
+        if (runner.both) {
+          runner.compareRouting();
+        }
+        else {
+          runner.run();
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      System.exit(1);
+    }
+    finally {
+      runner.closeMetrics();
+    }
+  }
+
+  // Parse command line arguments.
+  private void parse(String args[]) {
+    if (args.length % 2 != 0) {
+      throw new IllegalArgumentException("missing value of " +
+                                         args[args.length - 1]);
+    }
+
+    for (int i = 0; i < args.length; i += 2) {
+      String opt = args[i];
+      String val = args[i + 1];
+
+      try {
+        if (opt.equals("-alg")) {
+          alg = val;
+        }
+        else if (opt.equals("-n")) {
+          size = Integer.parseInt(val);
+        }
+        else if (opt.equals("-p")) {
+          procNo = Integer.parseInt(val);
+        }
+        else if (opt.equals("-dist")) {
+          try {
+            dist = InputDistribution.forName(val);
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown distribution " + val);
+          }
+        }
+        else if (opt.equals("-range")) {
+          range = Integer.parseInt(val);
+        }
+        else if (opt.equals("-seed")) {
+          seed = Long.parseLong(val);
+        }
+        else if (opt.equals("-runs")) {
+          runs = Integer.parseInt(val);
+        }
+        else if (opt.equals("-barrier")) {
+          try {
+            config.setBarrierType(BarrierType.forName(val));
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown barrier " + val);
+          }
+        }
+        else if (opt.equals("-threads")) {
+          try {
+            config.setExecutionMode(ExecutionMode.forName(val));
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown threads mode " + val);
+          }
+        }
+        else if (opt.equals("-topology")) {
+          try {
+            topo = TopologyType.forName(val);
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown topology " + val);
+          }
+        }
+        else if (opt.equals("-op")) {
+          try {
+            op = ReduceOp.forName(val);
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown operator " + val);
+          }
+        }
+        else if (opt.equals("-type")) {
+          try {
+            type = ValueType.valueOf(val.toUpperCase());
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown type " + val);
+          }
+        }
+        else if (opt.equals("-vlen")) {
+          vlen = Integer.parseInt(val);
+        }
+        else if (opt.equals("-scan")) {
+          if (val.equalsIgnoreCase("inclusive")) {
+            excl = false;
+          }
+          else if (val.equalsIgnoreCase("exclusive")) {
+            excl = true;
+          }
+          else {
+            throw new IllegalArgumentException("unknown scan " + val);
+          }
+        }
+        else if (opt.equals("-bcast")) {
+          try {
+            bcast = BroadcastMode.forName(val);
+          }
+          catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown broadcast " + val);
+          }
+        }
+        else if (opt.equals("-routing")) {
+          if (val.equalsIgnoreCase("both")) {
+            both = true;
+          }
+          else {
+            try {
+              config.setRoutingMode(RoutingMode.forName(val));
+              both = false;
+            }
+            catch (IllegalArgumentException e) {
+              throw new IllegalArgumentException("unknown routing " + val);
+            }
+          }
+        }
+        else if (opt.equals("-metrics")) {
+          metricsFile = val;
+        }
+        else if (opt.equals("-flit")) {
+          config.setFlitSize(Integer.parseInt(val));
+        }
+        else if (opt.equals("-model")) {
+          if (val.equalsIgnoreCase("calibrate")) {
+            calib = true;
+          }
+          else {
+            String params[] = val.split(",");
+            if (params.length != 2) {
+              throw new IllegalArgumentException("invalid model " + val);
+            }
+            model = new CostModel(Double.parseDouble(params[0]) * 1e3,
+                                  Double.parseDouble(params[1]));
+            calib = false;
+          }
+        }
+        else if (opt.equals("-pivot")) {
+          if (val.equalsIgnoreCase("median")) {
+            median = true;
+          }
+          else if (val.equalsIgnoreCase("random")) {
+            median = false;
+          }
+          else {
+            throw new IllegalArgumentException("unknown pivot " + val);
+          }
+        }
+        else {
+          throw new IllegalArgumentException("unknown option " + opt);
+        }
+      }
+      catch (NumberFormatException e) {
+        throw new IllegalArgumentException("invalid value of " + opt + ": " +
+                                           val);
+      }
+    }
+
+    if (alg == null) {
+      throw new IllegalArgumentException("no algorithm given");
+    }
+    if (!isHypercube() && !isRing() && !isGeneric() && !alg.equals(PBSORT) &&
+        !alg.equals(PSSORT) && !alg.equals(SCAN_RING) &&
+        !alg.equals(BCAST_RING) && !alg.equals(A2A_PERSON_RING)) {
+      throw new IllegalArgumentException("unknown algorithm " + alg);
+    }
+    if (procNo < 1 || size < 1) {
+      throw new IllegalArgumentException("size and number of processors " +
+                                         "must be positive");
+    }
+    if (isHypercube() && Integer.bitCount(procNo) != 1) {
+      throw new IllegalArgumentException("number of processors of a " +
+                                         "hypercube must be a power of 2");
+    }
+    if (isRing() && procNo % 2 != 0) {
+      throw new IllegalArgumentException("number of processors of a ring " +
+                                         "must be even");
+    }
+    if (vlen < 0) {
+      throw new IllegalArgumentException("vector length must not be " +
+                                         "negative");
+    }
+    if (alg.equals(ALL_REDUCE_VEC) && vlen == 0) {
+      throw new IllegalArgumentException(ALL_REDUCE_VEC + " requires -vlen");
+    }
+    if ((both || config.getRoutingMode() != RoutingMode.STORE_AND_FORWARD) &&
+        !isRouted()) {
+      throw new IllegalArgumentException("cut-through routing is supported " +
+                                         "by " + PBSORT + " and " +
+                                         O2A_PERSON_RING + " only");
+    }
+    if (type == ValueType.DOUBLE && op == ReduceOp.XOR) {
+      throw new IllegalArgumentException("xor of double values");
+    }
+    if (isGeneric()) {
+      topology = topo.create(procNo);
+    }
+
+    // each processor gets a block of the same size
+    size -= size % procNo;
+    if (size == 0) {
+      size = procNo;
+    }
+    if (range <= 0) {
+      range = size;
+    }
+  }
+
+  private boolean isHypercube() {
+    return alg.equals(PQSORT) || alg.equals(O2A_PERSON_HYP) ||
+           alg.equals(S_NODE_ACC_HYP) || alg.equals(ALL_REDUCE_HYP) ||
+           alg.equals(ALL_REDUCE_VEC) || alg.equals(SCAN_HYP) ||
+           alg.equals(BCAST_HYP) || alg.equals(A2A_PERSON_HYP);
+  }
+
+  private boolean isRing() {
+    return alg.equals(O2A_PERSON_RING) || alg.equals(S_NODE_ACC_RING);
+  }
+
+  // Check if the algorithm combines partial results of processors.
+  private boolean isReduction() {
+    return alg.startsWith("s-node-acc") || alg.startsWith("all-reduce") ||
+           alg.startsWith("scan");
+  }
+
+  // Check if the algorithm passes messages as given with -routing.
+  private boolean isRouted() {
+    return alg.equals(PBSORT) || alg.equals(O2A_PERSON_RING);
+  }
+
+  // Check if the algorithm runs on the topology given with -topology.
+  private boolean isGeneric() {
+    return alg.equals(O2A_PERSON) || alg.equals(S_NODE_ACC);
+  }
+
+  /*
+  Run the algorithm store-and-forward and then cut-through, and print how many
+  times the latter is faster.
+  */
+  private void compareRouting() throws InterruptedException {
+    config.setRoutingMode(RoutingMode.STORE_AND_FORWARD);
+    long sf = run();
+    config.setRoutingMode(RoutingMode.CUT_THROUGH);
+    long ct = run();
+
+    System.out.println(format("sf / ct", String.format("%.2f",
+                       (double)sf / ct)));
+  }
+
+  // Run the algorithm once, print the report and return the wall time.
+  private long run() throws InterruptedException {
+    int d = Integer.numberOfTrailingZeros(procNo);
+
+    // reduction gets one message (vector) for each processor
+    int n     = isReduction() ? procNo * Math.max(1, vlen) : size;
+    int seq[] = dist.generate(n, range, seed);
+
+    // partial results are combined in place, so the input is kept aside
+    Acc<?> msg[] = isReduction() ? partials(seq) : null;
+
+    int phases;
+    if (isRouted() && config.getRoutingMode() == RoutingMode.CUT_THROUGH) {
+      phases = 1;
+    }
+    else if (alg.equals(SCAN_RING)) {
+      phases = ScanRing.phases(procNo, msg[0]);
+    }
+    else if (alg.startsWith("a2a-person")) {
+      phases = procNo - 1;
+    }
+    else if (alg.equals(BCAST_RING)) {
+      phases = BroadcastRing.phases(procNo, bcast);
+    }
+    else if (alg.equals(ALL_REDUCE_VEC)) {
+      phases = 2 * d;
+    }
+    else if (isHypercube()) {
+      phases = d;
+    }
+    else if (isRing()) {
+      phases = procNo / 2;
+    }
+    else if (alg.equals(PSSORT)) {
+      phases = PSampleSort.PHASES;
+    }
+    else if (isGeneric()) {
+      phases = topology.eccentricity(0);
+    }
+    else {
+      phases = procNo - 1;
+    }
+
+    // all-to-all exchange sends each element to the processor of its bucket
+    int      blocks[][][] = alg.startsWith("a2a-person") ? split(seq) : null;
+    Recorder rec          = new Recorder(phases);
+    Traffic  traffic      = (model != null) ? new Traffic(procNo) :
+                                              Traffic.NONE;
+    config.setTraffic(traffic);
+
+    // times are measured from the moment the recorder is created
+    PhaseMetrics metrics = (metricsOut != null) ?
+                           new PhaseMetrics(procNo, phases) :
+                           PhaseMetrics.NONE;
+    config.setMetrics(metrics);
+    long     start        = System.nanoTime();
+
+    if (alg.equals(PQSORT) && median) {
+      new PQuickSort(rec, seq, d, config).join();
+    }
+    else if (alg.equals(PQSORT)) {
+      int pivot = seq[(int)(seed % seq.length + seq.length) % seq.length];
+      new PQuickSort(rec, seq, pivot, d, config).join();
+    }
+    else if (alg.equals(PBSORT)) {
+      new PBucketSort(rec, seq, 0, range - 1, procNo, config).join();
+    }
+    else if (alg.equals(PSSORT)) {
+      new PSampleSort(rec, seq, procNo, config).join();
+    }
+    else if (alg.equals(O2A_PERSON)) {
+      new OneToAllPerson(rec, seq, topology, config).join();
+    }
+    else if (alg.equals(O2A_PERSON_HYP)) {
+      new OneToAllPersonHyp(rec, seq, d, config).join();
+    }
+    else if (alg.equals(O2A_PERSON_RING)) {
+      new OneToAllPersonRing(rec, seq, procNo, config).join();
+    }
+    else if (alg.equals(BCAST_HYP)) {
+      new BroadcastHyp(rec, seq, d, bcast, config).join();
+    }
+    else if (alg.equals(A2A_PERSON_HYP)) {
+      new AllToAllPersonHyp(rec, blocks, d, config).join();
+    }
+    else if (alg.equals(A2A_PERSON_RING)) {
+      new AllToAllPersonRing(rec, blocks, procNo, config).join();
+    }
+    else if (alg.equals(BCAST_RING)) {
+      new BroadcastRing(rec, seq, procNo, bcast, config).join();
+    }
+    else {
+      reduce(rec, msg, d);
+    }
+
+    long end = System.nanoTime();
+
+    System.out.println(alg + ": n=" + n + " p=" + procNo + " dist=" +
+                       dist.name().toLowerCase() + " seed=" + seed +
+                       " barrier=" +
+                       config.getBarrierType().name().toLowerCase() +
+                       " threads=" + threadsName() +
+                       (isRouted() ? " routing=" + config.getRoutingMode()
+                                     .getAbbreviation().toLowerCase() : "") +
+                       (isGeneric() ? " topology=" + topology + " diameter=" +
+                                      topology.diameter() : ""));
+
+    long prev = start;
+    for (int i = 1; i <= phases; i++) {
+      long t = rec.phaseEnd.get(i);
+      System.out.println(format("phase " + i, millis(t - prev) + " ms"));
+      prev = t;
+    }
+    System.out.println(format("final", millis(end - prev) + " ms"));
+    System.out.println(format("wall time", millis(end - start) + " ms"));
+    if (model != null) {
+      printModel(traffic, rec, phases, start);
+    }
+    if (metricsOut != null) {
+      printMetrics(metrics, end - start);
+    }
+    System.out.println(format("throughput", String.format("%.3f",
+                       n * 1e3 / (end - start)) + " M elements/s"));
+
+    if (alg.equals(PQSORT) || alg.equals(PBSORT) || alg.equals(PSSORT)) {
+      System.out.println(format("max load", String.format("%.2f",
+                         maxLoad(rec.sorted) * (double)procNo / n) + " n/p"));
+      System.out.println(format("verified", verifySorted(rec.sorted, n) ?
+                                "yes" : "NO"));
+    }
+    else if (alg.startsWith("a2a-person")) {
+      System.out.println(format("max load", String.format("%.2f",
+                         maxLoad(rec.recv) * (double)procNo / n) + " n/p"));
+      System.out.println(format("verified", verifyExchanged(rec.recv,
+                                blocks) ? "yes" : "NO"));
+    }
+    else if (alg.startsWith("bcast")) {
+      System.out.println(format("verified", verifyBroadcast(rec.held, seq) ?
+                                "yes" : "NO"));
+    }
+    else if (alg.startsWith("o2a-person")) {
+      System.out.println(format("verified", verifyScattered(rec.held, seq) ?
+                                "yes" : "NO"));
+    }
+    else if (alg.startsWith("s-node-acc")) {
+      // the result is accumulated into the partial result of P0
+      Object expected = fold(partials(seq));
+      System.out.println(format("result", String.valueOf(msg[0])));
+      System.out.println(format("verified", equal(msg[0], expected) ?
+                                "yes" : "NO"));
+    }
+    else if (alg.startsWith("all-reduce")) {
+      // each processor holds the result in its partial result
+      Object  expected = fold(partials(seq));
+      boolean valid    = true;
+      for (int i = 0; i < procNo; i++) {
+        valid &= equal(msg[i], expected);
+      }
+      System.out.println(format("result", String.valueOf(msg[0])));
+      System.out.println(format("verified", valid ? "yes" : "NO"));
+    }
+    else if (alg.startsWith("scan")) {
+      System.out.println(format("result", String.valueOf(msg[procNo - 1])));
+      System.out.println(format("verified", verifyScan(msg, seq) ?
+                                "yes" : "NO"));
+    }
+
+    return end - start;
+  }
+
+  // Run a reduction or a scan of given partial results.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void reduce(Recorder rec, Acc msg[], int d)
+    throws InterruptedException {
+    if (alg.equals(SCAN_HYP) && excl) {
+      new ScanHyp(rec, msg, identity(), d, config).join();
+    }
+    else if (alg.equals(SCAN_HYP)) {
+      new ScanHyp(rec, msg, d, config).join();
+    }
+    else if (alg.equals(SCAN_RING) && excl) {
+      new ScanRing(rec, msg, identity(), procNo, config).join();
+    }
+    else if (alg.equals(SCAN_RING)) {
+      new ScanRing(rec, msg, procNo, config).join();
+    }
+    else if (alg.equals(ALL_REDUCE_HYP)) {
+      new AllReduceHyp(rec, msg, d, config).join();
+    }
+    else if (alg.equals(ALL_REDUCE_VEC)) {
+      new AllReduceVectorHyp(rec, (VectorAcc[])msg, d, config).join();
+    }
+    else if (alg.equals(S_NODE_ACC)) {
+      new SingleNodeAcc(rec, msg, topology, config).join();
+    }
+    else if (alg.equals(S_NODE_ACC_HYP)) {
+      new SingleNodeAccHyp(rec, msg, d, config).join();
+    }
+    else {
+      new SingleNodeAccRing(rec, msg, procNo, config).join();
+    }
+  }
+
+  /*
+  Return partial results of processors made of consecutive blocks of the input
+  sequence, a single value or a vector of vlen values each.
+  */
+  private Acc<?>[] partials(int seq[]) {
+    Acc<?> a[] = (vlen > 0) ? new VectorAcc<?>[procNo] : new Acc<?>[procNo];
+    int    len = Math.max(1, vlen);
+
+    for (int i = 0; i < procNo; i++) {
+      int off = i * len;
+
+      if (vlen == 0 && type == ValueType.INT) {
+        a[i] = new IntAcc(seq[off], op);
+      }
+      else if (vlen == 0 && type == ValueType.LONG) {
+        a[i] = new LongAcc(seq[off], op);
+      }
+      else if (vlen == 0) {
+        a[i] = new DoubleAcc(seq[off], op);
+      }
+      else if (type == ValueType.INT) {
+        a[i] = new IntVectorAcc(Arrays.copyOfRange(seq, off, off + len), op);
+      }
+      else if (type == ValueType.LONG) {
+        long v[] = new long[len];
+        for (int j = 0; j < len; j++) {
+          v[j] = seq[off + j];
+        }
+        a[i] = new LongVectorAcc(v, op);
+      }
+      else {
+        double v[] = new double[len];
+        for (int j = 0; j < len; j++) {
+          v[j] = seq[off + j];
+        }
+        a[i] = new DoubleVectorAcc(v, op);
+      }
+    }
+
+    return a;
+  }
+
+  // Return the identity element of the operator of the type of partial results.
+  private Acc<?> identity() {
+    int len = Math.max(1, vlen);
+
+    if (vlen == 0 && type == ValueType.INT) {
+      return new IntAcc(op.intIdentity(), op);
+    }
+    else if (vlen == 0 && type == ValueType.LONG) {
+      return new LongAcc(op.longIdentity(), op);
+    }
+    else if (vlen == 0) {
+      return new DoubleAcc(op.doubleIdentity(), op);
+    }
+    else if (type == ValueType.INT) {
+      int v[] = new int[len];
+      Arrays.fill(v, op.intIdentity());
+      return new IntVectorAcc(v, op);
+    }
+    else if (type == ValueType.LONG) {
+      long v[] = new long[len];
+      Arrays.fill(v, op.longIdentity());
+      return new LongVectorAcc(v, op);
+    }
+    else {
+      double v[] = new double[len];
+      Arrays.fill(v, op.doubleIdentity());
+      return new DoubleVectorAcc(v, op);
+    }
+  }
+
+  // Check that each processor holds its prefix of partial results.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private boolean verifyScan(Acc msg[], int seq[]) {
+    Acc     part[] = partials(seq);
+    Acc     prefix = identity();
+    boolean valid  = true;
+
+    for (int i = 0; i < procNo; i++) {
+      if (!excl) {
+        prefix.combine(part[i]);
+      }
+      valid &= equal(msg[i], prefix);
+      if (excl) {
+        prefix.combine(part[i]);
+      }
+    }
+    return valid;
+  }
+
+  /*
+  Combine partial results sequentially and return the result. Sums of doubles
+  made of int values are exact, so the order doesn't matter.
+  */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object fold(Acc a[]) {
+    for (int i = 1; i < a.length; i++) {
+      a[0].combine(a[i]);
+    }
+    return a[0];
+  }
+
+  // Check if two results of accumulation hold the same values.
+  private static boolean equal(Object a, Object b) {
+    if (a instanceof IntVectorAcc) {
+      return Arrays.equals(((IntVectorAcc)a).toArray(),
+                           ((IntVectorAcc)b).toArray());
+    }
+    if (a instanceof LongVectorAcc) {
+      return Arrays.equals(((LongVectorAcc)a).toArray(),
+                           ((LongVectorAcc)b).toArray());
+    }
+    if (a instanceof DoubleVectorAcc) {
+      return Arrays.equals(((DoubleVectorAcc)a).toArray(),
+                           ((DoubleVectorAcc)b).toArray());
+    }
+    // scalars print their values
+    return a.toString().equals(b.toString());
+  }
+
+  // Return the name of the kind of threads processors are run on.
+  private String threadsName() {
+    ExecutionMode mode = config.getExecutionMode();
+
+    if (mode == ExecutionMode.VIRTUAL && !ExecutionMode.isVirtualSupported()) {
+      return "compact-platform";
+    }
+    return mode.name().toLowerCase();
+  }
+
+  /*
+  Return blocks of processors for each destination. Processor i holds ith block
+  of the input sequence and sends each element to the processor of its bucket
+  of the range of values.
+  */
+  private int[][][] split(int seq[]) {
+    int blocks[][][] = new int[procNo][procNo][];
+    int block        = seq.length / procNo;
+
+    for (int i = 0; i < procNo; i++) {
+      int count[] = new int[procNo];
+      for (int j = block * i; j < block * (i + 1); j++) {
+        count[bucket(seq[j])]++;
+      }
+      for (int k = 0; k < procNo; k++) {
+        blocks[i][k] = new int[count[k]];
+        count[k]     = 0;
+      }
+      for (int j = block * i; j < block * (i + 1); j++) {
+        int k = bucket(seq[j]);
+        blocks[i][k][count[k]++] = seq[j];
+      }
+    }
+    return blocks;
+  }
+
+  // Return the processor whose bucket holds a given value.
+  private int bucket(int value) {
+    return (int)((long)value * procNo / range);
+  }
+
+  // Check that each processor holds blocks of all processors meant for it.
+  private static boolean verifyExchanged(int recv[][][], int blocks[][][]) {
+    for (int i = 0; i < recv.length; i++) {
+      if (recv[i] == null) {
+        return false;
+      }
+      for (int j = 0; j < recv.length; j++) {
+        if (!Arrays.equals(recv[i][j], blocks[j][i])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Return the largest number of elements received by a processor.
+  private static int maxLoad(int recv[][][]) {
+    int max = 0;
+
+    for (int i = 0; i < recv.length; i++) {
+      int load = 0;
+      for (int j = 0; recv[i] != null && j < recv[i].length; j++) {
+        load += recv[i][j].length;
+      }
+      max = Math.max(max, load);
+    }
+    return max;
+  }
+
+  // Check that each processor holds the whole message.
+  private static boolean verifyBroadcast(IntSlice held[], int msg[]) {
+    for (int i = 0; i < held.length; i++) {
+      if (held[i] == null || held[i].length() != msg.length) {
+        return false;
+      }
+      for (int j = 0; j < msg.length; j++) {
+        if (held[i].get(j) != msg[j]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Check that each processor holds its block of the message.
+  private static boolean verifyScattered(IntSlice held[], int msg[]) {
+    int block = msg.length / held.length;
+
+    for (int i = 0; i < held.length; i++) {
+      if (held[i] == null || held[i].length() != block) {
+        return false;
+      }
+      for (int j = 0; j < block; j++) {
+        if (held[i].get(j) != msg[block * i + j]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Return the size of the largest block of processors.
+  private static int maxLoad(int sorted[][]) {
+    int max = 0;
+
+    for (int i = 0; i < sorted.length; i++) {
+      if (sorted[i] != null) {
+        max = Math.max(max, sorted[i].length);
+      }
+    }
+    return max;
+  }
+
+  // Check that blocks of processors make a sorted sequence of n elements.
+  private static boolean verifySorted(int sorted[][], int n) {
+    int count = 0;
+    int prev  = Integer.MIN_VALUE;
+
+    for (int i = 0; i < sorted.length; i++) {
+      if (sorted[i] == null) {
+        return false;
+      }
+      for (int j = 0; j < sorted[i].length; j++) {
+        if (sorted[i][j] < prev) {
+          return false;
+        }
+        prev = sorted[i][j];
+      }
+      count += sorted[i].length;
+    }
+
+    return count == n;
+  }
+
+  // Open the file times of phases are written to, if one has been given.
+  private void openMetrics() throws IOException {
+    if (metricsFile != null) {
+      metricsOut = new PrintWriter(new FileWriter(metricsFile));
+      if (isJson()) {
+        metricsOut.print("[");
+      }
+      else {
+        metricsOut.println(PhaseMetrics.CSV_HEADER);
+      }
+    }
+  }
+
+  private void closeMetrics() {
+    if (metricsOut != null) {
+      if (isJson()) {
+        metricsOut.println("\n]");
+      }
+      metricsOut.close();
+    }
+  }
+
+  private boolean isJson() {
+    return metricsFile.toLowerCase().endsWith(".json");
+  }
+
+  /*
+  Print the mean time processors have computed, waited in barriers and spent
+  in listener callbacks, and the processor that has computed longest. Then
+  write times of all phases of this run to the file.
+  */
+  private void printMetrics(PhaseMetrics metrics, long wall) {
+    long compute[] = new long[procNo];
+    long wait      = 0;
+    long callback  = 0;
+    int  straggler = 0;
+
+    for (int i = 0; i < procNo; i++) {
+      for (int k = 1; k <= metrics.getPhases(i); k++) {
+        compute[i] += metrics.getCompute(i, k);
+        wait       += metrics.getWait(i, k);
+        callback   += metrics.getCallback(i, k);
+      }
+      if (compute[i] > compute[straggler]) {
+        straggler = i;
+      }
+    }
+    long sum = 0;
+    for (int i = 0; i < procNo; i++) {
+      sum += compute[i];
+    }
+
+    System.out.println(format("compute", millis(sum / procNo) + " ms"));
+    System.out.println(format("barrier wait", millis(wait / procNo) + " ms"));
+    System.out.println(format("callbacks", millis(callback / procNo) +
+                              " ms"));
+    System.out.println(format("straggler", "P" + straggler + " " +
+                              millis(compute[straggler]) + " ms"));
+
+    run++;
+    if (isJson()) {
+      metricsOut.print(((run > 1) ? "," : "") + "\n  {\"run\": " + run +
+                       ", \"alg\": \"" + alg + "\", \"p\": " + procNo +
+                       ", \"barrier\": \"" +
+                       config.getBarrierType().name().toLowerCase() +
+                       "\", \"wall_ns\": " + wall + ", \"phases\": ");
+      metrics.writeJson(metricsOut);
+      metricsOut.print("}");
+    }
+    else {
+      metrics.writeCsv(metricsOut, run);
+    }
+  }
+
+  /*
+  Print messages and words sent in each phase, the number of processors that
+  have sent, and the time of the phase given by the model next to the time it
+  has taken. Phases are timed at barriers, so the measured time includes
+  local work and waiting as well.
+  */
+  private void printModel(Traffic traffic, Recorder rec, int phases,
+                          long start) {
+    System.out.println(String.format("  %-12s %s", "model", model));
+    System.out.println(String.format("  %5s %8s %11s %10s %6s %11s %11s",
+                                     "phase", "msgs", "words", "max words",
+                                     "active", "modeled ms", "measured ms"));
+
+    double modeled = 0;
+    long   prev    = start;
+    for (int i = 1; i <= phases; i++) {
+      long   t = rec.phaseEnd.get(i);
+      double m = model.phaseTime(traffic, i);
+
+      System.out.println(String.format("  %5d %8d %11d %10d %6d %11s %11s",
+                                       i, traffic.getMessages(i),
+                                       traffic.getWords(i),
+                                       traffic.getMaxWords(i),
+                                       traffic.getActive(i),
+                                       millis((long)m), millis(t - prev)));
+      modeled += m;
+      prev     = t;
+    }
+    System.out.println(format("modeled", millis((long)modeled) + " ms"));
+
+    // share of the time of phases that communication should account for
+    System.out.println(format("comm share", String.format("%.3f",
+                       modeled / (prev - start))));
+  }
+
+  private static String millis(long nanos) {
+    return String.format("%.3f", nanos / 1e6);
+  }
+
+  private static String format(String label, String value) {
+    return String.format("  %-12s %14s", label, value);
+  }
+}
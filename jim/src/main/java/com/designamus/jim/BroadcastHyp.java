@@ -0,0 +1,171 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntSlice;
+
+/**
+  * This class implements engine of one to all broadcast on a hypercube. In the
+  * tree mode the whole message goes down a binomial tree, in phase i every
+  * processor that holds it sends it along ith link, so broadcast takes d
+  * phases of m elements.
+  * <p>
+  * In the pipelined mode the message is split into d chunks, each sent down
+  * its own binomial tree. Tree j uses links in the order j, j+1, ..., j+d-1
+  * (mod d), so in any phase trees use different links and don't contend for
+  * them. Broadcast takes d phases of m/d elements, i.e. about m tw + d ts
+  * instead of (m tw + ts) d.
+  * <p>
+  * Processors read chunks straight from buffers of their neighbours, a chunk
+  * isn't changed after it has been received.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class BroadcastHyp {
+  private BroadcastListener listener;  // this algorithm listener
+  private int[]             data;      // message
+  private int               d;         // dimension of hypercube
+  private int               procNo;    // number of processors
+  private int               chunks;    // number of chunks of the message
+  private Processor[]       threads;   // processors
+  private Barrier           barrier;   // used to synchronize threads
+  private Thread[]          runners;   // threads that run processors
+  private Traffic           traffic;   // counters of messages sent
+  private PhaseMetrics      metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int                 id;      // unique processor label
+    int                 buff[];  // copy of the message
+    Channel<IntSlice>[] in;      // incoming links, one for each dimension
+
+    @SuppressWarnings("unchecked")
+    Processor(int id) {
+      this.id = id;
+      in      = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<IntSlice>();
+      }
+
+      // processor 0 holds the initial message
+      buff = (id == 0) ? data : new int[data.length];
+    }
+
+    public void run() {
+      if (id == 0) {
+        listener.sourceInited(id, new IntSlice(buff));
+      }
+
+      for (int t = 0; t < d; t++) {
+        // send chunks first, links of different trees don't block each other
+        for (int j = 0; j < chunks; j++) {
+          int link = link(j, t);
+
+          if (holds(id, j, t) && (id & (1 << link)) == 0) {
+            int      from  = bound(j);
+            IntSlice chunk = new IntSlice(buff, from, bound(j + 1) - from);
+
+            threads[id ^ (1 << link)].in[link].send(chunk);
+            traffic.sent(id, t + 1, chunk.length());
+          }
+        }
+
+        for (int j = 0; j < chunks; j++) {
+          int link = link(j, t);
+          int src  = id ^ (1 << link);
+
+          if ((id & (1 << link)) != 0 && holds(src, j, t)) {
+            IntSlice chunk = in[link].receive();
+            chunk.copyTo(buff, bound(j));
+
+            listener.procReceived(id, src, t + 1, chunk);
+          }
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(t + 1, t == (d - 1));
+        metrics.phaseDone(id);
+      }
+      listener.procFinished(id, new IntSlice(buff));
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  BroadcastHyp(BroadcastListener listener, int data[], int d,
+               BroadcastMode mode) {
+    this(listener, data, d, mode, new EngineConfig());
+  }
+
+  BroadcastHyp(BroadcastListener listener, int data[], int d,
+               BroadcastMode mode, EngineConfig config) {
+    this.listener = listener;
+    this.data     = data;
+    this.d        = d;
+    procNo        = 1 << d;
+    chunks        = (mode == BroadcastMode.PIPELINED) ? Math.max(1, d) : 1;
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Return the link tree j uses in phase t.
+  private int link(int j, int t) {
+    return (j + t) % d;
+  }
+
+  /*
+  Check if a processor holds chunk j before phase t. These are processors
+  whose labels differ from 0 only in links tree j has used so far.
+  */
+  private boolean holds(int id, int j, int t) {
+    int used = 0;
+
+    for (int s = 0; s < t; s++) {
+      used |= 1 << link(j, s);
+    }
+    return (id & ~used) == 0;
+  }
+
+  // Return the index of the first element of a given chunk.
+  private int bound(int chunk) {
+    return (int)((long)chunk * data.length / chunks);
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This enumeration lists ways one-to-all broadcast engines send a message.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+enum BroadcastMode {
+  TREE,       // whole message over a single spanning tree
+  PIPELINED;  // chunks of the message over edge-disjoint spanning trees
+
+  // Return the broadcast mode with a given name (case insensitive).
+  static BroadcastMode forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+}
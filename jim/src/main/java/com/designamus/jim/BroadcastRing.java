@@ -0,0 +1,188 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntSlice;
+
+/**
+  * This class implements engine of one to all broadcast on a ring. The message
+  * goes from P0 along two paths, one in each direction of the ring. In the
+  * tree mode each path carries the whole message to half of the processors,
+  * so broadcast takes p/2 phases of m elements.
+  * <p>
+  * In the pipelined mode the paths are the two edge-disjoint spanning trees of
+  * the ring, each carries half of the message to all processors. The halves
+  * are split into p chunks and processor k receives chunk c in phase k + c,
+  * so chunks follow each other down the paths. Broadcast takes 2p - 2 phases
+  * of m/2p elements, i.e. about m tw + 2p ts instead of (m tw + ts) p/2. A
+  * ring can't do with less than p/2 startups, that's its diameter.
+  * <p>
+  * Processors read chunks straight from buffers of their neighbours, a chunk
+  * isn't changed after it has been received.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+class BroadcastRing {
+  private static final int UP   = 0;  // path through labels 1, 2, ...
+  private static final int DOWN = 1;  // path through labels p-1, p-2, ...
+
+  private BroadcastListener listener;  // this algorithm listener
+  private int[]             data;      // message
+  private int               procNo;    // number of processors
+  private int               chunks;    // number of chunks on each path
+  private int               phases;    // number of phases
+  private int[]             length;    // number of processors on paths
+  private int[]             from;      // first element each path carries
+  private int[]             to;        // end of elements each path carries
+  private Processor[]       threads;   // processors
+  private Barrier           barrier;   // used to synchronize threads
+  private Thread[]          runners;   // threads that run processors
+  private Traffic           traffic;   // counters of messages sent
+  private PhaseMetrics      metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;      // unique processor label
+    int buff[];  // copy of the message
+    int pos[];   // positions on paths, P0 is at 0
+    int prev[];  // labels of processors before this one on paths
+    int next[];  // labels of processors after this one on paths
+
+    // incoming links, in[UP] from the previous processor on the ring
+    Channel<IntSlice>[] in;
+
+    @SuppressWarnings("unchecked")
+    Processor(int id) {
+      this.id = id;
+      pos     = new int[] {id, (procNo - id) % procNo};
+      prev    = new int[] {(id + procNo - 1) % procNo, (id + 1) % procNo};
+      next    = new int[] {prev[DOWN], prev[UP]};
+      in      = new Channel[] {new Channel<IntSlice>(),
+                               new Channel<IntSlice>()};
+
+      // processor 0 holds the initial message
+      buff = (id == 0) ? data : new int[data.length];
+    }
+
+    public void run() {
+      if (id == 0) {
+        listener.sourceInited(id, new IntSlice(buff));
+      }
+
+      for (int i = 1; i <= phases; i++) {
+        for (int path = UP; path <= DOWN; path++) {
+          // chunk the processor deals with in this phase
+          int c = i - Math.max(pos[path], 1);
+
+          if (pos[path] > length[path] || c < 0 || c >= chunks) {
+            continue;
+          }
+
+          if (pos[path] > 0) {
+            IntSlice chunk = in[path].receive();
+            chunk.copyTo(buff, bound(path, c));
+
+            listener.procReceived(id, prev[path], i, chunk);
+          }
+          if (pos[path] < length[path]) {
+            int      first = bound(path, c);
+            IntSlice chunk = new IntSlice(buff, first,
+                                          bound(path, c + 1) - first);
+
+            threads[next[path]].in[path].send(chunk);
+            traffic.sent(id, i, chunk.length());
+          }
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i, i == phases);
+        metrics.phaseDone(id);
+      }
+      listener.procFinished(id, new IntSlice(buff));
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  BroadcastRing(BroadcastListener listener, int data[], int procNo,
+                BroadcastMode mode) {
+    this(listener, data, procNo, mode, new EngineConfig());
+  }
+
+  BroadcastRing(BroadcastListener listener, int data[], int procNo,
+                BroadcastMode mode, EngineConfig config) {
+    this.listener = listener;
+    this.data     = data;
+    this.procNo   = procNo;
+    phases        = phases(procNo, mode);
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    if (mode == BroadcastMode.PIPELINED) {
+      // both paths reach all processors, each with half of the message
+      chunks = procNo;
+      length = new int[] {procNo - 1, procNo - 1};
+      from   = new int[] {0, data.length / 2};
+      to     = new int[] {data.length / 2, data.length};
+    }
+    else {
+      // each path reaches half of the processors with the whole message
+      chunks = 1;
+      length = new int[] {procNo / 2, procNo - 1 - procNo / 2};
+      from   = new int[] {0, 0};
+      to     = new int[] {data.length, data.length};
+    }
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Return the number of phases of broadcast on a given number of processors.
+  static int phases(int procNo, BroadcastMode mode) {
+    if (procNo == 1) {
+      return 0;
+    }
+    return (mode == BroadcastMode.PIPELINED) ? 2 * procNo - 2 : procNo / 2;
+  }
+
+  // Return the index of the first element of a chunk of a path.
+  private int bound(int path, int chunk) {
+    return from[path] +
+           (int)((long)chunk * (to[path] - from[path]) / chunks);
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -1,140 +1,268 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import java.util.Vector;
-
-/**
-  * This class implements a buffer for buckets.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/15/98
-  */
-class BucketsBuffer {
-  private Vector buckets[];
-  private int    min, max;   // interval of values
-  
-  BucketsBuffer(int buckNo, int min, int max) {
-    this.min = min;
-    this.max = max;
-
-    buckets = new Vector[buckNo];
-    for (int i = 0; i < buckNo; i++) {
-      buckets[i] = new Vector();
-    }
-  }
-
-  // Add element to buffer.
-  synchronized void add(int e) {
-    // interval length for each bucket
-    double d = (double)(max - min + 1) / buckets.length;
-
-    // partition data into buckets
-    for (int i = 0; i < buckets.length; i++) {
-      if (i < buckets.length - 1) {
-        if ((e >= min + d * i) && (e < min + d * (i + 1))) {
-          buckets[i].addElement(new Integer(e));
-          break;
-        }
-      }
-      else {
-        if (e >= min + d * i) {
-          buckets[i].addElement(new Integer(e));
-          break;
-        }
-      }
-    }
-  }
-
-  // Add elements to buffer.
-  synchronized void add(int data[]) {
-    for (int i = 0; i < data.length; i++) {
-      add(data[i]);
-    }
-  }
-
-  // Pop and return all elements but not from a given bucket.
-  synchronized int[] popExcept(int bucket) {
-    int size = 0;
-    for (int i = 0; i < buckets.length; i++) {
-      if (i != bucket) {
-        size += buckets[i].size();
-      }
-    }
-
-    int data[] = new int[size];
-
-    // join elements
-    int c = 0;
-    for (int i = 0; i < buckets.length; i++) {
-      if (i != bucket) {
-        for (int j = 0; j < buckets[i].size(); j++) {
-          data[c++] = ((Integer)buckets[i].elementAt(j)).intValue();
-        } 
-        buckets[i].removeAllElements();
-      }
-    }
-
-    return data;
-  } 
-
-  // Return all elements.
-  synchronized int[] get() {
-    int size = 0;
-    for (int i = 0; i < buckets.length; i++) {
-      size += buckets[i].size();
-    }
- 
-    int data[] = new int[size];
-
-    // join elements
-    int c = 0;
-    for (int i = 0; i < buckets.length; i++) {
-      for (int j = 0; j < buckets[i].size(); j++) {
-        data[c++] = ((Integer)buckets[i].elementAt(j)).intValue();
-      }
-    }
-
-    return data;
-  } 
-
-  // Return sorted elements.
-  synchronized int[] getSorted() {
-    int data[] = get();
-
-    bsort(data);
-    return data;
-  }
-
-  // Sort a given sequence using bubble sort.
-  private static void bsort(int data[]) {
-    boolean flag = true;
-
-    while (flag) {
-      flag = false;
-
-      for (int i = 0; i < data.length - 1; i++) {
-        if (data[i] > data[i + 1]) {
-          int tmp     = data[i];
-          data[i]     = data[i + 1];
-          data[i + 1] = tmp;
-          flag = true;
-        }
-      }
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntList;
+import com.designamus.jim.util.IntView;
+import com.designamus.jim.util.LocalSorter;
+import com.designamus.jim.util.LocalSorters;
+
+/**
+  * This class implements a buffer for buckets. It's only used by the thread
+  * of its processor, elements from other processors arrive through channels,
+  * so it isn't synchronized.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.6 10/18/26
+  */
+class BucketsBuffer {
+  private IntList buckets[];
+  private int     min, max;   // interval of values
+  private long    range;      // number of values in the interval
+
+  // used to sort elements, it's chosen for each sort if null
+  private LocalSorter sorter;
+
+  // view of all elements handed to listeners
+  private final IntView view = new View();
+
+  // the last snapshot taken, frozen before elements change
+  private BufferSnapshot snapshot;
+
+  BucketsBuffer(int buckNo, int min, int max) {
+    this(buckNo, min, max, null);
+  }
+
+  BucketsBuffer(int buckNo, int min, int max, LocalSorter sorter) {
+    this.min    = min;
+    this.max    = max;
+    this.sorter = sorter;
+    range       = (long)max - min + 1;
+
+    // buckets are created on first use, most of them stay empty
+    buckets = new IntList[buckNo];
+  }
+
+  /*
+  Return the bucket a given element belongs to. The interval is split into
+  buckets of equal length, so the bucket is computed directly from the offset
+  of the element within the interval, as the original partitioning did (when
+  the interval is shorter than the number of buckets, the largest value
+  doesn't necessarily go to the last bucket). Elements outside of the interval
+  go to the first or to the last bucket.
+  */
+  private int bucketOf(int e) {
+    if (e <= min) {
+      return 0;
+    }
+    if (e > max) {
+      return buckets.length - 1;
+    }
+    return (int)((((long)e - min) * buckets.length) / range);
+  }
+
+  // Return the bucket with a given index, create it if necessary.
+  private IntList bucket(int i) {
+    if (buckets[i] == null) {
+      buckets[i] = new IntList();
+    }
+    return buckets[i];
+  }
+
+  // Return the number of elements in a given bucket.
+  private int sizeOf(int i) {
+    return (buckets[i] == null) ? 0 : buckets[i].size();
+  }
+
+  // Add element to buffer.
+  void add(int e) {
+    changing();
+    bucket(bucketOf(e)).add(e);
+  }
+
+  // Add a range of elements to buffer.
+  void add(int data[], int off, int len) {
+    changing();
+    for (int i = off; i < off + len; i++) {
+      bucket(bucketOf(data[i])).add(data[i]);
+    }
+  }
+
+  // Add elements to buffer.
+  void add(int data[]) {
+    add(data, 0, data.length);
+  }
+
+  /*
+  Add elements of a given bucket from a range of an array to buffer and return
+  the other ones. Used to pass elements through a processor in one go, without
+  storing them first.
+  */
+  int[] keep(int data[], int off, int len, int bucket) {
+    changing();
+
+    int size = 0;
+    for (int i = off; i < off + len; i++) {
+      if (bucketOf(data[i]) != bucket) {
+        size++;
+      }
+    }
+
+    int rest[] = new int[size];
+
+    int c = 0;
+    for (int i = off; i < off + len; i++) {
+      if (bucketOf(data[i]) == bucket) {
+        bucket(bucket).add(data[i]);
+      }
+      else {
+        rest[c++] = data[i];
+      }
+    }
+
+    return rest;
+  }
+
+  // Pop and return all elements but not from a given bucket.
+  int[] popExcept(int bucket) {
+    changing();
+
+    int size = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      if (i != bucket) {
+        size += sizeOf(i);
+      }
+    }
+
+    int data[] = new int[size];
+
+    // join elements
+    int c = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      if (i != bucket && buckets[i] != null) {
+        buckets[i].copyTo(data, c);
+        c += buckets[i].size();
+        buckets[i].clear();
+      }
+    }
+
+    return data;
+  } 
+
+  // Return all elements.
+  int[] get() {
+    int size = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      size += sizeOf(i);
+    }
+ 
+    int data[] = new int[size];
+
+    // join elements
+    int c = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      if (buckets[i] != null) {
+        buckets[i].copyTo(data, c);
+        c += buckets[i].size();
+      }
+    }
+
+    return data;
+  } 
+
+  /*
+  Return a read-only view of all elements. Nothing is copied until the view is
+  read, and it follows subsequent changes of the buffer, so a reader that
+  keeps elements must call toArray() or take a snapshot.
+  */
+  IntView view() {
+    return view;
+  }
+
+  /*
+  Return a snapshot of all elements. It's copied only when the buffer is
+  about to change, and snapshots taken in between share the copy.
+  */
+  IntView snapshot() {
+    if (snapshot == null) {
+      snapshot = new BufferSnapshot(view);
+    }
+    return snapshot;
+  }
+
+  // Copy elements for the snapshot before they change.
+  private void changing() {
+    if (snapshot != null) {
+      snapshot.freeze();
+      snapshot = null;
+    }
+  }
+
+  // Return sorted elements.
+  int[] getSorted() {
+    int data[] = get();
+
+    // choose the sorter if it hasn't been set
+    LocalSorter s = sorter;
+    if (s == null) {
+      s = LocalSorters.select(data.length, min, max);
+    }
+
+    s.sort(data, 0, data.length);
+    return data;
+  }
+
+  // View that walks the buckets in order.
+  private class View implements IntView {
+    public int length() {
+      int size = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        size += sizeOf(i);
+      }
+      return size;
+    }
+
+    public int get(int index) {
+      if (index >= 0) {
+        for (int i = 0, j = index; i < buckets.length; i++) {
+          if (j < sizeOf(i)) {
+            return buckets[i].get(j);
+          }
+          j -= sizeOf(i);
+        }
+      }
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public void copyTo(int dst[], int off) {
+      for (int i = 0; i < buckets.length; i++) {
+        if (buckets[i] != null) {
+          buckets[i].copyTo(dst, off);
+          off += buckets[i].size();
+        }
+      }
+    }
+
+    public int[] toArray() {
+      return BucketsBuffer.this.get();
+    }
+
+    public IntView snapshot() {
+      return BucketsBuffer.this.snapshot();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntView;
+
+/**
+  * This class implements a copy-on-write snapshot of a buffer of a processor.
+  * Until the buffer is about to change the snapshot reads the live view of
+  * it, then the buffer freezes the snapshot and elements are copied once.
+  * A buffer that isn't changed before the snapshot is read or dropped is
+  * never copied for it.
+  * <p>
+  * The snapshot may be read by another thread. Reads and freezing are
+  * synchronized, so the processor doesn't change the buffer while a reader
+  * goes through the live view.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+final class BufferSnapshot implements IntView {
+  private IntView source;  // live view of the buffer, null once frozen
+  private int     data[];  // copy of elements, null until frozen
+
+  BufferSnapshot(IntView source) {
+    this.source = source;
+  }
+
+  // Copy elements of the buffer, called by its processor before it changes.
+  synchronized void freeze() {
+    if (source != null) {
+      data   = source.toArray();
+      source = null;
+    }
+  }
+
+  public synchronized int length() {
+    return (source != null) ? source.length() : data.length;
+  }
+
+  public synchronized int get(int index) {
+    return (source != null) ? source.get(index) : data[index];
+  }
+
+  public synchronized void copyTo(int dst[], int off) {
+    if (source != null) {
+      source.copyTo(dst, off);
+    }
+    else {
+      System.arraycopy(data, 0, dst, off, data.length);
+    }
+  }
+
+  public synchronized int[] toArray() {
+    return (source != null) ? source.toArray() : data.clone();
+  }
+
+  public IntView snapshot() {
+    return this;
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Channel;
+
+/**
+  * This class implements the model of the communication cost, where sending
+  * a message of m words over a link takes ts + tw * m. A phase takes as long
+  * as its busiest processor, as phases are separated by barriers. Parameters
+  * can be given or measured on the host by calibrate().
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class CostModel {
+  // sizes of messages and round trips each of them is timed with
+  private static final int SIZES[] = {1, 16, 256, 4096, 65536};
+  private static final int ROUNDS  = 200;
+  private static final int BATCHES = 5;
+
+  private final double ts;  // startup time of a message, ns
+  private final double tw;  // transfer time of a word, ns
+
+  CostModel(double ts, double tw) {
+    this.ts = ts;
+    this.tw = tw;
+  }
+
+  double getStartup() {
+    return ts;
+  }
+
+  double getPerWord() {
+    return tw;
+  }
+
+  /*
+  Return the modeled time of a phase in nanoseconds, the largest cost of
+  messages sent by any processor.
+  */
+  double phaseTime(Traffic traffic, int phase) {
+    double t = 0;
+    for (int i = 0; i < traffic.getProcNo(); i++) {
+      t = Math.max(t, ts * traffic.getMessages(i, phase) +
+                      tw * traffic.getWords(i, phase));
+    }
+    return t;
+  }
+
+  /*
+  Measure ts and tw by passing messages of growing size between two threads
+  back and forth. The receiver copies each message into its buffer, as
+  engines do with elements they take, so tw is the cost of moving a word
+  rather than of handing a reference over. Each size is timed in several
+  batches and the fastest one is kept, then a line is fitted to times by
+  least squares.
+  */
+  static CostModel calibrate() throws InterruptedException {
+    final Channel<int[]> ping = new Channel<int[]>();
+    final Channel<int[]> pong = new Channel<int[]>();
+    final int            max  = SIZES[SIZES.length - 1];
+
+    // echo messages back until an empty one arrives
+    Thread echo = new Thread(new Runnable() {
+      public void run() {
+        int buff[] = new int[max];
+        for (int msg[] = ping.receive(); msg.length > 0;
+             msg = ping.receive()) {
+          System.arraycopy(msg, 0, buff, 0, msg.length);
+          pong.send(msg);
+        }
+      }
+    }, "calibration");
+    echo.setDaemon(true);
+    echo.start();
+
+    int    buff[] = new int[max];
+    double t[]    = new double[SIZES.length];
+
+    for (int s = 0; s < SIZES.length; s++) {
+      int msg[] = new int[SIZES[s]];
+
+      t[s] = Double.MAX_VALUE;
+      for (int b = 0; b <= BATCHES; b++) {
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+          ping.send(msg);
+          System.arraycopy(pong.receive(), 0, buff, 0, msg.length);
+        }
+
+        // the first batch only warms up, a round trip carries two messages
+        if (b > 0) {
+          t[s] = Math.min(t[s], (System.nanoTime() - start) / (2.0 * ROUNDS));
+        }
+      }
+    }
+    ping.send(new int[0]);
+    echo.join();
+
+    // fit t = ts + tw * m
+    double sm = 0, st = 0, smm = 0, smt = 0;
+    for (int s = 0; s < SIZES.length; s++) {
+      sm  += SIZES[s];
+      st  += t[s];
+      smm += (double)SIZES[s] * SIZES[s];
+      smt += SIZES[s] * t[s];
+    }
+    int    n  = SIZES.length;
+    double tw = (n * smt - sm * st) / (n * smm - sm * sm);
+    double ts = (st - tw * sm) / n;
+
+    return new CostModel(Math.max(0, ts), Math.max(0, tw));
+  }
+
+  public String toString() {
+    return String.format("ts=%.3f us tw=%.3f ns/word", ts / 1e3, tw);
+  }
+}
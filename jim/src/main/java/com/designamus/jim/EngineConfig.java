@@ -0,0 +1,123 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.BarrierType;
+import com.designamus.jim.util.ExecutionMode;
+import com.designamus.jim.util.LocalSorter;
+
+/**
+  * This class holds settings that engines are run with. Defaults match the
+  * behaviour of engines created without a configuration.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.3 10/18/26
+  */
+class EngineConfig {
+  private BarrierType   barrierType   = BarrierType.MONITOR;
+  private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+  private LocalSorter   sorter;  // chosen by each processor if null
+  private RoutingMode   routingMode   = RoutingMode.STORE_AND_FORWARD;
+  private int           flitSize      = 1024;  // elements of a flit
+  private Traffic       traffic       = Traffic.NONE;
+  private PhaseMetrics  metrics       = PhaseMetrics.NONE;
+
+  BarrierType getBarrierType() {
+    return barrierType;
+  }
+
+  // Set the type of barrier used to synchronize processors.
+  EngineConfig setBarrierType(BarrierType barrierType) {
+    this.barrierType = barrierType;
+    return this;
+  }
+
+  /*
+  Create a barrier of the type set for a given number of processors. Joins
+  are timed if metrics of phases are recorded.
+  */
+  Barrier createBarrier(int parties) {
+    return metrics.wrap(barrierType.create(parties));
+  }
+
+  ExecutionMode getExecutionMode() {
+    return executionMode;
+  }
+
+  // Set the kind of threads that processors are run on.
+  EngineConfig setExecutionMode(ExecutionMode executionMode) {
+    this.executionMode = executionMode;
+    return this;
+  }
+
+  LocalSorter getSorter() {
+    return sorter;
+  }
+
+  // Set the sorter used by processors to sort their local elements.
+  EngineConfig setSorter(LocalSorter sorter) {
+    this.sorter = sorter;
+    return this;
+  }
+
+  RoutingMode getRoutingMode() {
+    return routingMode;
+  }
+
+  /*
+  Set the way messages are passed through intermediate processors. Engines
+  that don't support cut-through routing ignore it.
+  */
+  EngineConfig setRoutingMode(RoutingMode routingMode) {
+    this.routingMode = routingMode;
+    return this;
+  }
+
+  int getFlitSize() {
+    return flitSize;
+  }
+
+  // Set the number of elements of a flit in the cut-through mode.
+  EngineConfig setFlitSize(int flitSize) {
+    if (flitSize < 1) {
+      throw new IllegalArgumentException("invalid flit size: " + flitSize);
+    }
+    this.flitSize = flitSize;
+    return this;
+  }
+
+  Traffic getTraffic() {
+    return traffic;
+  }
+
+  // Set the counters of messages sent by processors, NONE to count nothing.
+  EngineConfig setTraffic(Traffic traffic) {
+    this.traffic = traffic;
+    return this;
+  }
+
+  PhaseMetrics getMetrics() {
+    return metrics;
+  }
+
+  // Set the recorder of times of phases, NONE to record nothing.
+  EngineConfig setMetrics(PhaseMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.FontMetrics;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+
+/**
+  * This class is a panel that shows messages about events of an algorithm.
+  * Events are kept as records in a ring of a fixed capacity, the oldest ones
+  * are dropped when it's full, so a long run takes constant memory and adding
+  * an event costs the same regardless of how many have been added. A record
+  * holds the processors and the phase of the event and a format of its text;
+  * the text is only built when the record is painted by the list, which
+  * paints visible rows only. Events can be filtered by processor and phase.
+  * The panel is used only on the event dispatch thread.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class EventLogPanel extends JPanel {
+  private static final long serialVersionUID = 1L;
+
+  private static final int CAPACITY = 1 << 13;  // records kept
+  private static final int ALL      = -1;       // filter that passes all
+
+  // processor or phase of events that don't have one
+  static final int NONE = -1;
+
+  private String phaseName;  // "phase" or "split", used in messages
+
+  // records, the one with sequence number n is kept at n % CAPACITY
+  private String formats[] = new String[CAPACITY];
+  private int    ids[]     = new int[CAPACITY];    // processor of the event
+  private int    peers[]   = new int[CAPACITY];    // the other processor
+  private int    phases[]  = new int[CAPACITY];
+  private long   values[]  = new long[CAPACITY];
+  private long   next;                             // next sequence number
+
+  // sequence numbers of records that pass filters, a ring as well
+  private long shown[] = new long[CAPACITY];
+  private int  first;                              // index of the oldest
+  private int  shownNo;
+
+  private int     procFilter  = ALL;
+  private int     phaseFilter = ALL;
+  private int     maxPhase;   // the last phase that can be chosen
+  private boolean following;  // set if a scroll to the end is pending
+
+  private Model             model = new Model();
+  private JList<String>     list  = new JList<String>(model);
+  private JComboBox<String> cbProc, cbPhase;
+
+  // List model that shows records that pass filters, oldest first.
+  private class Model extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    public int getSize() {
+      return shownNo;
+    }
+
+    public String getElementAt(int index) {
+      return format((int)(shown[(first + index) % CAPACITY] % CAPACITY));
+    }
+
+    void added(int from, int to) {
+      fireIntervalAdded(this, from, to);
+    }
+
+    void removed(int from, int to) {
+      fireIntervalRemoved(this, from, to);
+    }
+  }
+
+  EventLogPanel(String phaseName, int rows, int columns) {
+    super(new BorderLayout(0, 5));
+    this.phaseName = phaseName;
+
+    /*
+    Rows have the same size, so the list lays them out without measuring
+    each one. Lines longer than the viewport are scrolled horizontally.
+    */
+    FontMetrics fm = list.getFontMetrics(list.getFont());
+    list.setFixedCellHeight(fm.getHeight());
+    list.setFixedCellWidth(fm.stringWidth("[" + phaseName + " 10]: P1023 " +
+                           "has sent elements less and equal to pivot to " +
+                           "P1023") + 10);
+    JScrollPane sp = new JScrollPane(list);
+    sp.getViewport().setPreferredSize(
+        new Dimension(columns * fm.charWidth('m'), rows * fm.getHeight()));
+    add(sp, BorderLayout.CENTER);
+
+    JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+    JLabel lProc   = new JLabel("Processor:");
+    cbProc         = new JComboBox<String>(new String[] { "All" });
+    lProc.setLabelFor(cbProc);
+    filters.add(lProc);
+    filters.add(cbProc);
+    JLabel lPhase  = new JLabel(Character.toUpperCase(phaseName.charAt(0)) +
+                                phaseName.substring(1) + ":");
+    cbPhase        = new JComboBox<String>(new String[] { "All" });
+    lPhase.setLabelFor(cbPhase);
+    filters.add(lPhase);
+    filters.add(cbPhase);
+    add(filters, BorderLayout.NORTH);
+
+    ActionListener filter = new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        // the first item passes all, the others are P0, P1... and 1, 2...
+        int proc  = cbProc.getSelectedIndex();
+        int phase = cbPhase.getSelectedIndex();
+        setFilters((proc > 0) ? proc - 1 : ALL, (phase > 0) ? phase : ALL);
+      }
+    };
+    cbProc.addActionListener(filter);
+    cbPhase.addActionListener(filter);
+  }
+
+  // Remove all events and let them be filtered by a given processor.
+  void clear(int procNo) {
+    next     = 0;
+    maxPhase = 0;
+
+    // filters are set again while items are replaced, the log is empty
+    cbProc.removeAllItems();
+    cbPhase.removeAllItems();
+    cbProc.addItem("All");
+    cbPhase.addItem("All");
+    for (int i = 0; i < procNo; i++) {
+      cbProc.addItem("P" + i);
+    }
+    setFilters(ALL, ALL);
+  }
+
+  // Add an event of a given processor outside of phases.
+  void add(int id, String format) {
+    add(id, NONE, format, NONE, 0);
+  }
+
+  // Add an event of a given processor that involves another one.
+  void add(int id, int phase, String format, int peer) {
+    add(id, phase, format, peer, 0);
+  }
+
+  /*
+  Add an event. The format is that of String.format() and gets the
+  processor, the other processor and the value as its arguments; it should
+  be a constant, so nothing is built until the record is shown.
+  */
+  void add(int id, int phase, String format, int peer, long value) {
+    long seq = next++;
+    int  k   = (int)(seq % CAPACITY);
+
+    // the record that is overwritten goes out of the list too
+    if (seq >= CAPACITY && shownNo > 0 && shown[first] == seq - CAPACITY) {
+      first = (first + 1) % CAPACITY;
+      shownNo--;
+      model.removed(0, 0);
+    }
+
+    formats[k] = format;
+    ids[k]     = id;
+    peers[k]   = peer;
+    phases[k]  = phase;
+    values[k]  = value;
+
+    while (phase > maxPhase) {
+      cbPhase.addItem(String.valueOf(++maxPhase));
+    }
+
+    if (passes(k)) {
+      boolean end = list.getLastVisibleIndex() >= shownNo - 1;
+
+      shown[(first + shownNo) % CAPACITY] = seq;
+      model.added(shownNo, shownNo);
+      shownNo++;
+
+      // keep the newest event visible unless the user has scrolled back
+      if (end && !following) {
+        following = true;
+        SwingUtilities.invokeLater(new Runnable() {
+          public void run() {
+            following = false;
+            list.ensureIndexIsVisible(shownNo - 1);
+          }
+        });
+      }
+    }
+  }
+
+  // Show only events of a given processor in a given phase.
+  private void setFilters(int proc, int phase) {
+    procFilter  = proc;
+    phaseFilter = phase;
+
+    list.clearSelection();
+    if (shownNo > 0) {
+      int n = shownNo;
+      shownNo = 0;
+      model.removed(0, n - 1);
+    }
+
+    // records are kept since the later of the start and the last overwrite
+    first = 0;
+    for (long seq = Math.max(0, next - CAPACITY); seq < next; seq++) {
+      if (passes((int)(seq % CAPACITY))) {
+        shown[shownNo++] = seq;
+      }
+    }
+    if (shownNo > 0) {
+      model.added(0, shownNo - 1);
+      list.ensureIndexIsVisible(shownNo - 1);
+    }
+  }
+
+  // Check if a record with a given index passes filters.
+  private boolean passes(int k) {
+    if (procFilter != ALL && ids[k] != NONE && ids[k] != procFilter &&
+        peers[k] != procFilter) {
+      return false;
+    }
+    return phaseFilter == ALL || phases[k] == phaseFilter;
+  }
+
+  // Build the text of a record with a given index.
+  private String format(int k) {
+    String s = String.format(formats[k], ids[k], peers[k], values[k]);
+    return (phases[k] == NONE) ? s : "[" + phaseName + " " + phases[k] +
+                                     "]: " + s;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This class implements a hypercube topology. Labels of neighbours differ on
+  * exactly one bit and messages are routed by fixing differing bits from the
+  * lowest one (e-cube routing).
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class Hypercube implements Topology {
+  private int d;  // dimension of hypercube
+
+  Hypercube(int d) {
+    if (d < 0 || d > 30) {
+      throw new IllegalArgumentException("invalid dimension: " + d);
+    }
+    this.d = d;
+  }
+
+  // Return the dimension of hypercube.
+  int getDimension() {
+    return d;
+  }
+
+  public int size() {
+    return 1 << d;
+  }
+
+  // Neighbours are listed by dimension, the ith one differs on bit i.
+  public int[] neighbours(int id) {
+    int n[] = new int[d];
+
+    for (int i = 0; i < d; i++) {
+      n[i] = id ^ (1 << i);
+    }
+    return n;
+  }
+
+  public int nextHop(int from, int to) {
+    int diff = from ^ to;
+
+    // flip the lowest bit on which labels differ
+    return from ^ (diff & -diff);
+  }
+
+  public int distance(int from, int to) {
+    return Integer.bitCount(from ^ to);
+  }
+
+  public int diameter() {
+    return d;
+  }
+
+  public int eccentricity(int id) {
+    return d;
+  }
+
+  // Labels in the order of the reflected Gray code, neighbours differ on a bit.
+  public int[] ringEmbedding() {
+    int order[] = new int[1 << d];
+
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i ^ (i >> 1);
+    }
+    return order;
+  }
+
+  public int dilation() {
+    return (d > 0) ? 1 : 0;
+  }
+
+  public String toString() {
+    return "hypercube d=" + d;
+  }
+}
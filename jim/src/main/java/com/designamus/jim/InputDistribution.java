@@ -0,0 +1,92 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.Random;
+
+/**
+  * This enumeration lists distributions of input sequences that algorithms can
+  * be run with.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+enum InputDistribution {
+  UNIFORM,     // values drawn uniformly from the interval
+  GAUSSIAN,    // values clustered around the middle of the interval
+  ZIPF,        // small values are far more frequent than large ones
+  FEW_UNIQUE,  // only a handful of distinct values
+  SORTED,      // ascending sequence
+  REVERSED;    // descending sequence
+
+  // Return the distribution with a given name (case insensitive).
+  static InputDistribution forName(String name) {
+    return valueOf(name.toUpperCase().replace('-', '_'));
+  }
+
+  // Generate n elements from the interval [0, bound) with a given seed.
+  int[] generate(int n, int bound, long seed) {
+    Random rnd = new Random(seed);
+    int seq[]  = new int[n];
+
+    switch (this) {
+      case UNIFORM:
+        for (int i = 0; i < n; i++) {
+          seq[i] = rnd.nextInt(bound);
+        }
+        break;
+
+      case GAUSSIAN:
+        for (int i = 0; i < n; i++) {
+          int v = (int)(bound / 2 + rnd.nextGaussian() * bound / 8);
+          seq[i] = Math.min(bound - 1, Math.max(0, v));
+        }
+        break;
+
+      case ZIPF:
+        // a log-uniform variable has the continuous Zipf density 1/x
+        for (int i = 0; i < n; i++) {
+          seq[i] = (int)Math.pow(bound, rnd.nextDouble()) - 1;
+        }
+        break;
+
+      case FEW_UNIQUE:
+        int values[] = new int[Math.min(16, bound)];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = rnd.nextInt(bound);
+        }
+        for (int i = 0; i < n; i++) {
+          seq[i] = values[rnd.nextInt(values.length)];
+        }
+        break;
+
+      case SORTED:
+        for (int i = 0; i < n; i++) {
+          seq[i] = (int)((long)i * bound / n);
+        }
+        break;
+
+      case REVERSED:
+        for (int i = 0; i < n; i++) {
+          seq[i] = (int)((long)(n - 1 - i) * bound / n);
+        }
+        break;
+    }
+
+    return seq;
+  }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntList;
+
+/**
+  * This class implements a two dimensional mesh topology. Processor
+  * row * cols + col is connected to processors next to it in the same row and
+  * column, messages go along the row first and then along the column (XY
+  * routing).
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class Mesh2D implements Topology {
+  protected int rows;     // number of rows
+  protected int cols;     // number of columns
+  private   int order[];  // embedded ring, created on demand
+
+  Mesh2D(int rows, int cols) {
+    if (rows < 1 || cols < 1 || (long)rows * cols > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("invalid shape: " + rows + "x" +
+                                         cols);
+    }
+    this.rows = rows;
+    this.cols = cols;
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  int getCols() {
+    return cols;
+  }
+
+  public int size() {
+    return rows * cols;
+  }
+
+  public int[] neighbours(int id) {
+    int     row = id / cols;
+    int     col = id % cols;
+    IntList n   = new IntList(4);
+
+    addNeighbour(n, id, row - 1, col);
+    addNeighbour(n, id, row + 1, col);
+    addNeighbour(n, id, row, col - 1);
+    addNeighbour(n, id, row, col + 1);
+
+    return n.toArray();
+  }
+
+  /*
+  Add the processor at a given position to the list of neighbours of id,
+  unless it's off the mesh, id itself or already there.
+  */
+  private void addNeighbour(IntList n, int id, int row, int col) {
+    int label = label(row, col);
+    if (label < 0 || label == id) {
+      return;
+    }
+
+    for (int i = 0; i < n.size(); i++) {
+      if (n.get(i) == label) {
+        return;
+      }
+    }
+    n.add(label);
+  }
+
+  // Return the label of the processor at a given position, or -1 if none.
+  protected int label(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      return -1;
+    }
+    return row * cols + col;
+  }
+
+  public int nextHop(int from, int to) {
+    int row  = from / cols;
+    int col  = from % cols;
+    int tRow = to / cols;
+    int tCol = to % cols;
+
+    if (col != tCol) {
+      return row * cols + step(col, tCol, cols);
+    }
+    if (row != tRow) {
+      return step(row, tRow, rows) * cols + col;
+    }
+    return from;
+  }
+
+  // Return the next coordinate on the way from a to b along a dimension.
+  protected int step(int a, int b, int n) {
+    return (a < b) ? a + 1 : a - 1;
+  }
+
+  public int distance(int from, int to) {
+    return Math.abs(from / cols - to / cols) +
+           Math.abs(from % cols - to % cols);
+  }
+
+  public int diameter() {
+    return (rows - 1) + (cols - 1);
+  }
+
+  public int eccentricity(int id) {
+    int row = id / cols;
+    int col = id % cols;
+
+    return Math.max(row, rows - 1 - row) + Math.max(col, cols - 1 - col);
+  }
+
+  /*
+  If there are an even number of rows, the ring goes along row 0, snakes back
+  through columns 1 to cols - 1 of the other rows and returns up column 0, so
+  every step is a link. The same is done with columns if their number is
+  even. Otherwise there is no such cycle, the ring visits every other
+  processor of the snake path through rows and comes back through the rest,
+  so steps are at most two links long, unless wraparound links of a torus
+  close the snake path itself.
+  */
+  public synchronized int[] ringEmbedding() {
+    if (order == null) {
+      int n = rows * cols;
+      order = new int[n];
+
+      if (rows % 2 == 0 && cols > 1) {
+        cycle(rows, cols, false);
+      }
+      else if (cols % 2 == 0 && rows > 1) {
+        cycle(cols, rows, true);
+      }
+      else {
+        // go out along even positions of the snake and back along odd ones
+        int k = 0;
+        for (int i = 0; i < n; i += 2) {
+          order[k++] = snake(i);
+        }
+        for (int i = n - 1 - n % 2; i > 0; i -= 2) {
+          order[k++] = snake(i);
+        }
+
+        // wraparound links may close the snake itself
+        if (n > 1 && distance(snake(n - 1), snake(0)) == 1) {
+          for (int i = 0; i < n; i++) {
+            order[i] = snake(i);
+          }
+        }
+      }
+    }
+
+    return order.clone();
+  }
+
+  // Fill the order with a Hamiltonian cycle of an even x m grid.
+  private void cycle(int even, int m, boolean transposed) {
+    int k = 0;
+
+    for (int j = 0; j < m; j++) {
+      order[k++] = cell(0, j, transposed);
+    }
+    for (int i = 1; i < even; i++) {
+      for (int j = 1; j < m; j++) {
+        int c = (i % 2 == 1) ? m - j : j;
+        order[k++] = cell(i, c, transposed);
+      }
+    }
+    for (int i = even - 1; i >= 1; i--) {
+      order[k++] = cell(i, 0, transposed);
+    }
+  }
+
+  // Return the processor at a given position of the snake path through rows.
+  private int snake(int i) {
+    int row = i / cols;
+    int col = (row % 2 == 0) ? i % cols : cols - 1 - i % cols;
+
+    return row * cols + col;
+  }
+
+  private int cell(int i, int j, boolean transposed) {
+    return transposed ? j * cols + i : i * cols + j;
+  }
+
+  public int dilation() {
+    int ring[] = ringEmbedding();
+    int max    = 0;
+
+    for (int i = 0; i < ring.length && ring.length > 1; i++) {
+      max = Math.max(max, distance(ring[i], ring[(i + 1) % ring.length]));
+    }
+    return max;
+  }
+
+  public String toString() {
+    return "mesh " + rows + "x" + cols;
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntSlice;
+import com.designamus.jim.util.IntView;
+
+/**
+  * This class implements listeners of all algorithms with methods that do
+  * nothing. It's used when an algorithm is run without visualization, so
+  * the cost of callbacks doesn't affect the engine.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.3 10/18/26
+  */
+class NoOpListener implements PQuickSortListener, PBucketSortListener,
+                              PSampleSortListener, OneToAllPersonListener,
+                              SingleNodeAccListener<Object>,
+                              AllReduceListener<Object>,
+                              ScanListener<Object>, BroadcastListener,
+                              AllToAllPersonListener {
+  // shared instance, the listener has no state
+  static final NoOpListener INSTANCE = new NoOpListener();
+
+  public void procInited(int id, IntView data) {
+  }
+
+  public void procInited(int id, int blocks[][]) {
+  }
+
+  public void procInited(int id, Object msg) {
+  }
+
+  public void sourceInited(int id, IntSlice msg) {
+  }
+
+  public void pivotSelected(int id, int split, int pivot) {
+  }
+
+  public void procSampled(int id, int samples[]) {
+  }
+
+  public void splittersSelected(int splitters[]) {
+  }
+
+  public void procSentLeft(int id, int to, int split, IntView data,
+                           int sent) {
+  }
+
+  public void procSentRight(int id, int to, int split, IntView data,
+                            int sent) {
+  }
+
+  public void procSent(int id, int to, int phase, IntView buff, int data[]) {
+  }
+
+  public void procSent(int id, int to, int phase, IntSlice buff,
+                       IntSlice msg) {
+  }
+
+  public void procSent(int id, int to, int data[]) {
+  }
+
+  public void procAcc(int id, int from, int phase, Object acc) {
+  }
+
+  public void procReceived(int id, int from, int phase, IntSlice chunk) {
+  }
+
+  public void procReceived(int id, int from, int phase, int block[]) {
+  }
+
+  public void procGathered(int id, int from, int phase, Object acc) {
+  }
+
+  public void procScanned(int id, int from, int phase, Object prefix) {
+  }
+
+  public void splitCompleted(int split) {
+  }
+
+  public void phaseCompleted(int phase) {
+  }
+
+  public void phaseCompleted(int phase, boolean last) {
+  }
+
+  public void procFinished(int id, int sorted[]) {
+  }
+
+  public void procFinished(int id, IntSlice msg) {
+  }
+
+  public void procFinished(int id, int received[][]) {
+  }
+
+  public void finished() {
+  }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntList;
+import com.designamus.jim.util.IntSlice;
+
+/**
+  * This class implements engine of one to all personalized communication on
+  * any topology. Messages go from processor 0 down the spanning tree made of
+  * routing paths: in phase k processors at distance k - 1 from P0 send each
+  * child the messages of its subtree.
+  * <p>
+  * P0 copies the message once, so blocks are in the preorder of the tree and
+  * messages of every subtree are next to each other. Then all messages are
+  * views of this copy.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class OneToAllPerson {
+  private OneToAllPersonListener listener;  // this algorithm listener
+  private int[]                  data;      // personalized message
+  private Topology               topology;  // interconnection of processors
+  private int                    procNo;    // number of processors
+  private int                    block;     // size of a message for a processor
+  private int                    phases;    // eccentricity of P0
+  private int[][]                children;  // children in the tree
+  private int[]                  pre;       // positions in preorder
+  private int[]                  size;      // number of processors of subtrees
+  private Processor[]            threads;   // processors
+  private Barrier                barrier;   // used to synchronize threads
+  private Thread[]               runners;   // threads that run processors
+  private Traffic                traffic;   // counters of messages sent
+  private PhaseMetrics           metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int               id;     // unique processor label
+    int               level;  // distance from P0
+    IntSlice          msg;    // view of the messages of its subtree
+    Channel<IntSlice> in = new Channel<IntSlice>();  // link from the parent
+
+    Processor(int id) {
+      this.id = id;
+      level   = topology.distance(id, 0);
+
+      // processor 0 holds the initial message in preorder
+      if (id == 0) {
+        int tmp[] = new int[block * procNo];
+        for (int i = 0; i < procNo; i++) {
+          System.arraycopy(data, block * i, tmp, block * pre[i], block);
+        }
+        msg = new IntSlice(tmp);
+      }
+    }
+
+    public void run() {
+      if (id == 0) {
+        listener.sourceInited(id, new IntSlice(data, 0, block * procNo));
+      }
+
+      for (int phase = 1; phase <= phases; phase++) {
+        if (id != 0 && phase == level) {
+          msg = in.receive();
+        }
+
+        /*
+        Children are sent their parts from the last one, so the part that is
+        left is always at the front of the view.
+        */
+        if (phase == level + 1) {
+          int c[] = children[id];
+
+          for (int i = c.length - 1; i >= 0; i--) {
+            int      off  = (pre[c[i]] - pre[id]) * block;
+            IntSlice part = msg.slice(off, size[c[i]] * block);
+
+            threads[c[i]].in.send(part);
+            traffic.sent(id, phase, part.length());
+
+            listener.procSent(id, c[i], phase, msg.slice(0, off), part);
+          }
+          msg = msg.slice(0, block);
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(phase, phase == phases);
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  OneToAllPerson(OneToAllPersonListener listener, int data[],
+                 Topology topology) {
+    this(listener, data, topology, new EngineConfig());
+  }
+
+  OneToAllPerson(OneToAllPersonListener listener, int data[],
+                 Topology topology, EngineConfig config) {
+    this.listener = listener;
+    this.data     = data;
+    this.topology = topology;
+    procNo        = topology.size();
+    block         = data.length / procNo;
+    phases        = topology.eccentricity(0);
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    buildTree();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  /*
+  Find children of processors in the tree of routes to P0, number processors
+  in preorder and count processors of each subtree.
+  */
+  private void buildTree() {
+    IntList lists[] = new IntList[procNo];
+    for (int i = 0; i < procNo; i++) {
+      lists[i] = new IntList();
+    }
+    for (int i = 1; i < procNo; i++) {
+      lists[topology.nextHop(i, 0)].add(i);
+    }
+
+    children = new int[procNo][];
+    for (int i = 0; i < procNo; i++) {
+      children[i] = lists[i].toArray();
+    }
+
+    // visit processors with an explicit stack, the tree can be deep
+    pre  = new int[procNo];
+    size = new int[procNo];
+
+    int order[] = new int[procNo];
+    int stack[] = new int[procNo];
+    int top     = 0;
+    int n       = 0;
+
+    stack[top++] = 0;
+    while (top > 0) {
+      int id = stack[--top];
+
+      pre[id]    = n;
+      order[n++] = id;
+      for (int i = children[id].length - 1; i >= 0; i--) {
+        stack[top++] = children[id][i];
+      }
+    }
+
+    // children come after their parents in preorder
+    for (int i = procNo - 1; i >= 0; i--) {
+      int id = order[i];
+
+      size[id] = 1;
+      for (int j = 0; j < children[id].length; j++) {
+        size[id] += size[children[id][j]];
+      }
+    }
+  }
+
+  // Return the number of phases the algorithm takes.
+  int getPhases() {
+    return phases;
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -1,120 +1,143 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import com.designamus.jim.util.Barrier;
-
-/**
-  * This class implements engine of one to all personalized communication on a
-  * hypercube.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/08/98
-  */
-class OneToAllPersonHyp {
-  private OneToAllPersonListener listener;  // this algorithm listener
-  private int[]                  data;      // personalized message
-  private int                    d;         // dimension of hypercube
-  private int                    procNo;    // number of processors
-  private Processor[]            threads;   // processors threads
-  private Barrier                barrier;   // used to synchronize threads
-
-  private class Processor extends Thread {
-    int id;     // unique processor label
-    int msg[];  // buffer for a message
-
-    Processor(int id) {
-      this.id = id;
-
-      // processor 0 holds the initial message 
-      if (id == 0) {
-        dataSent(data);
-      }
-    }
-
-    public void run() {
-      if (id == 0) {
-        listener.sourceInited(id, msg);
-      }
-
-      // set all d bits of mask to 1
-      int mask = (1 << d ) - 1;
-
-      for (int i = d - 1; i >= 0; i--) {
-        // set ith bit of mask to 0
-        mask ^= (1 << i);
-
-        // check if the processor is active in this phase
-        if ((id & mask) == 0) {
-          // if ith bit is 0
-          if ((id & (1 << i)) == 0) {
-            // label of the destination processor
-            int dest = id ^ (1 << i);
-
-            /*
-            Send half of the message to the destination processor and retain the
-            first half.
-            */
-            int first[]  = new int[msg.length >> 1];
-            int second[] = new int[msg.length >> 1];
-            for (int j = 0; j < msg.length >> 1; j++) {
-              first[j]  = msg[j];
-              second[j] = msg[(msg.length >> 1) + j];
-            }
-            msg = first;
-            threads[dest].dataSent(second);
-           
-            listener.procSent(id, dest, d - i, msg, second);
-          }
-        }
-
-        // wait for all threads to complete phase
-        barrier.join();
-
-        listener.phaseCompleted(d - i, i == 0);
-      }
-      if (id == 0) {
-        listener.finished();
-      } 
-    }
-
-    // Receive and store message in the buffer.
-    void dataSent(int data[]) {
-      msg = new int[data.length];
-      for (int i = 0; i < data.length; i++) {
-        msg[i] = data[i];
-      }
-    }
-  }
-
-  OneToAllPersonHyp(OneToAllPersonListener listener, int data[], int d) {
-    this.listener = listener;
-    this.data     = data;
-    this.d        = d;
-    procNo        = 1 << d;
-    threads       = new Processor[procNo];
-    barrier       = new Barrier(procNo);
-
-    // create and start processors threads
-    for (int i = 0; i < procNo; i++) {
-      threads[i] = new Processor(i);
-    }
-    for (int i = 0; i < procNo; i++) {
-      threads[i].start();
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntSlice;
+
+/**
+  * This class implements engine of one to all personalized communication on a
+  * hypercube.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class OneToAllPersonHyp {
+  private OneToAllPersonListener listener;  // this algorithm listener
+  private int[]                  data;      // personalized message
+  private int                    d;         // dimension of hypercube
+  private int                    procNo;    // number of processors
+  private Processor[]            threads;   // processors
+  private Barrier                barrier;   // used to synchronize threads
+  private Thread[]               runners;   // threads that run processors
+  private Traffic                traffic;   // counters of messages sent
+  private PhaseMetrics           metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int                 id;   // unique processor label
+    IntSlice            msg;  // view of the part of the message it holds
+    Channel<IntSlice>[] in;   // incoming links, one for each dimension
+
+    @SuppressWarnings("unchecked")
+    Processor(int id) {
+      this.id = id;
+      in      = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<IntSlice>();
+      }
+
+      // processor 0 holds the initial message 
+      if (id == 0) {
+        msg = new IntSlice(data);
+      }
+    }
+
+    public void run() {
+      if (id == 0) {
+        listener.sourceInited(id, msg);
+      }
+
+      // set all d bits of mask to 1
+      int mask = (1 << d ) - 1;
+
+      for (int i = d - 1; i >= 0; i--) {
+        // set ith bit of mask to 0
+        mask ^= (1 << i);
+
+        // check if the processor is active in this phase
+        if ((id & mask) == 0) {
+          // if ith bit is 0
+          if ((id & (1 << i)) == 0) {
+            // label of the destination processor
+            int dest = id ^ (1 << i);
+
+            /*
+            Send half of the message to the destination processor and retain the
+            first half. Both halves are views of the source message, so no
+            elements are copied.
+            */
+            int      half   = msg.length() >> 1;
+            IntSlice second = msg.slice(half, half);
+
+            msg = msg.slice(0, half);
+            threads[dest].in[i].send(second);
+            traffic.sent(id, d - i, second.length());
+           
+            listener.procSent(id, dest, d - i, msg, second);
+          }
+          else {
+            // receive the second half from the processor along ith link
+            msg = in[i].receive();
+          }
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(d - i, i == 0);
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      } 
+    }
+  }
+
+  OneToAllPersonHyp(OneToAllPersonListener listener, int data[], int d) {
+    this(listener, data, d, new EngineConfig());
+  }
+
+  OneToAllPersonHyp(OneToAllPersonListener listener, int data[], int d,
+                    EngineConfig config) {
+    this.listener = listener;
+    this.data     = data;
+    this.d        = d;
+    procNo        = 1 << d;
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -1,141 +1,284 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import com.designamus.jim.util.Barrier;
-
-/**
-  * This class implements engine of one to all personalized communication on a
-  * hypercube.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/29/98
-  */
-class OneToAllPersonRing {
-  private OneToAllPersonListener listener;  // this algorithm listener
-  private int[]                  data;      // personalized message
-  private int                    procNo;    // number of processors
-  private Processor[]            threads;   // processors threads
-  private Barrier                barrier;   // used to synchronize threads
-
-  private class Processor extends Thread {
-    int id;     // unique processor label
-    int msg[];  // buffer for a message
-
-    Processor(int id) {
-      this.id = id;
-
-      // processor 0 holds the initial message 
-      if (id == 0) {
-        dataSent(data);
-      }
-    }
-
-    public void run() {
-      if (id == 0) {
-        listener.sourceInited(id, msg);
-      }
-
-      for (int i = 1; i <= procNo / 2; i++) {
-        int     dest    = 0;      // label of the destination processor
-        boolean active  = false;  // set if the processor sends data
-        int     sendLen = 0;      // size of the message
-
-        // in the first phase the message is splited into two halves
-        if (i == 1) {
-          if (id == 0) {
-            dest    = procNo - 1;
-            sendLen = procNo / 2;
-            active  = true;
-          }
-        }
-        else {
-          if (id == i - 2) {
-            dest    = i - 1;
-            active  = true;
-          }
-          else if (id == procNo - i + 1) {
-            dest    = procNo - i;  
-            active  = true;
-          } 
-          sendLen = procNo / 2 - i + 1; 
-        }
-
-        /*
-        If the processor is active in this phase partition its message and send
-        the second part to the destination processor. In the first phase P0 has
-        to reverse the message before sending it.
-        */
-        if (active) {
-          int first[]  = new int[msg.length - sendLen];
-          int second[] = new int[sendLen];
-
-          for (int j = 0; j < msg.length; j++) {
-            if (j < msg.length - sendLen) {
-              first[j]  = msg[j];
-            }
-            else {
-              if (i == 1) {
-                second[j - (msg.length - sendLen)] = 
-                msg[msg.length + msg.length - sendLen - j - 1];
-              }
-              else { 
-                second[j - (msg.length - sendLen)] = msg[j];
-              }
-            }
-          }
-          msg = first;
-          threads[dest].dataSent(second);
-
-          listener.procSent(id, dest, i, msg, second);
-       }
-
-       // wait for all threads to complete split
-       barrier.join(); 
-
-       listener.phaseCompleted(i, i == procNo / 2);
-      } 
-      if (id == 0) {
-        listener.finished();
-      } 
-    }
-
-    // Receive and store message in the buffer.
-    void dataSent(int data[]) {
-      msg = new int[data.length];
-      for (int i = 0; i < data.length; i++) {
-        msg[i] = data[i];
-      }
-    }
-  }
-
-  OneToAllPersonRing(OneToAllPersonListener listener, int data[], int procNo) {
-    this.listener = listener;
-    this.data     = data;
-    this.procNo   = procNo;
-    threads       = new Processor[procNo];
-    barrier       = new Barrier(procNo);
-
-    // create and start processors threads
-    for (int i = 0; i < procNo; i++) {
-      threads[i] = new Processor(i);
-    }
-    for (int i = 0; i < procNo; i++) {
-      threads[i].start();
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntSlice;
+
+/**
+  * This class implements engine of one to all personalized communication on a
+  * ring. Messages are passed either store-and-forward, phase by phase, or
+  * cut-through, when the whole distribution is a single phase of flits
+  * streamed through intermediate processors.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.3 10/18/26
+  */
+class OneToAllPersonRing {
+  private OneToAllPersonListener listener;  // this algorithm listener
+  private int[]                  data;      // personalized message
+  private int                    procNo;    // number of processors
+  private int                    block;     // size of a message for a processor
+  private Processor[]            threads;   // processors
+  private Barrier                barrier;   // used to synchronize threads
+  private Thread[]               runners;   // threads that run processors
+  private Traffic                traffic;   // counters of messages sent
+  private PhaseMetrics           metrics;   // times of phases
+  private RoutingMode            routing;   // how messages are passed on
+  private int                    flitSize;  // elements of a flit
+
+  private class Processor implements Runnable {
+    int      id;   // unique processor label
+    IntSlice msg;  // view of the part of the message held by the processor
+
+    // incoming links from the previous and the next processor on the ring
+    Channel<IntSlice> fromPrev = new Channel<IntSlice>();
+    Channel<IntSlice> fromNext = new Channel<IntSlice>();
+
+    Processor(int id) {
+      this.id = id;
+
+      // processor 0 holds the initial message 
+      if (id == 0) {
+        msg = new IntSlice(data);
+      }
+    }
+
+    public void run() {
+      if (id == 0) {
+        listener.sourceInited(id, msg);
+      }
+
+      if (routing == RoutingMode.CUT_THROUGH) {
+        stream();
+        if (id == 0) {
+          listener.finished();
+        }
+        return;
+      }
+
+      for (int i = 1; i <= procNo / 2; i++) {
+        int     dest    = 0;      // label of the destination processor
+        boolean active  = false;  // set if the processor sends data
+        int     sendLen = 0;      // size of the message
+
+        // in the first phase the message is splited into two halves
+        if (i == 1) {
+          if (id == 0) {
+            dest    = procNo - 1;
+            sendLen = (procNo / 2) * block;
+            active  = true;
+          }
+        }
+        else {
+          if (id == i - 2) {
+            dest    = i - 1;
+            active  = true;
+          }
+          else if (id == procNo - i + 1) {
+            dest    = procNo - i;  
+            active  = true;
+          } 
+          sendLen = (procNo / 2 - i + 1) * block; 
+        }
+
+        /*
+        If the processor is active in this phase partition its message and send
+        a part to the destination processor. Messages are kept in the order of
+        labels, so processors in the lower half of labels keep the first block
+        and send the rest up, processors in the upper half keep the last block
+        and send the rest down. Parts are views of the source message, nothing
+        is copied.
+        */
+        if (active) {
+          int      keep = msg.length() - sendLen;
+          IntSlice sent;
+
+          if (id < procNo / 2) {
+            sent = msg.slice(keep, sendLen);
+            msg  = msg.slice(0, keep);
+          }
+          else {
+            sent = msg.slice(0, sendLen);
+            msg  = msg.slice(sendLen, keep);
+          }
+
+          // parts go up from the lower half and down from the upper half
+          if (i > 1 && id < procNo / 2) {
+            threads[dest].fromPrev.send(sent);
+          }
+          else {
+            threads[dest].fromNext.send(sent);
+          }
+          traffic.sent(id, i, sent.length());
+
+          listener.procSent(id, dest, i, msg, sent);
+        }
+
+        // receive a part if a neighbour sends it in this phase
+        if ((i == 1 && id == procNo - 1) || (i > 1 && id == procNo - i)) {
+          msg = fromNext.receive();
+        }
+        else if (i > 1 && id == i - 1) {
+          msg = fromPrev.receive();
+        }
+
+        // wait for all threads to complete split
+        barrier.join(id);
+
+        listener.phaseCompleted(i, i == procNo / 2);
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+
+    /*
+    Distribute the message in the cut-through mode. The source streams blocks
+    of both chains in flits, the farthest block first, so an intermediate
+    processor forwards each flit as soon as it arrives and its own block comes
+    last. Flits never straddle blocks and they are views of the source message,
+    so the block a processor keeps is a view as well. It takes the time of
+    l + m flits instead of l * m to deliver a message of m flits over l links.
+    */
+    void stream() {
+      int half = procNo / 2;
+
+      if (id == 0) {
+        // the lower chain goes up to P(p/2-1), the upper one down to P(p/2)
+        IntSlice lower = new IntSlice(data, block, (half - 1) * block);
+        IntSlice upper = new IntSlice(data, half * block, half * block);
+
+        msg = msg.slice(0, block);
+        if (half > 1) {
+          listener.procSent(id, 1, 1, msg, lower);
+        }
+        listener.procSent(id, procNo - 1, 1, msg, upper);
+
+        // interleave flits of both chains, the farthest blocks first
+        int lo = half - 1;
+        int hi = half;
+        int lowOff = 0;
+        int upOff  = 0;
+
+        while (block > 0 && (lo >= 1 || hi < procNo)) {
+          if (lo >= 1) {
+            int len = Math.min(flitSize, block - lowOff);
+            threads[1].fromPrev.send(new IntSlice(data, lo * block + lowOff,
+                                                  len));
+            traffic.sent(id, 1, len);
+            lowOff += len;
+            if (lowOff == block) {
+              lowOff = 0;
+              lo--;
+            }
+          }
+          if (hi < procNo) {
+            int len = Math.min(flitSize, block - upOff);
+            threads[procNo - 1].fromNext.send(new IntSlice(data,
+                                                           hi * block + upOff,
+                                                           len));
+            traffic.sent(id, 1, len);
+            upOff += len;
+            if (upOff == block) {
+              upOff = 0;
+              hi++;
+            }
+          }
+        }
+      }
+      else {
+        // the lower half receives from the previous processor and passes up
+        boolean           up     = id < half;
+        Channel<IntSlice> link   = up ? fromPrev : fromNext;
+        int               dest   = up ? id + 1 : id - 1;
+        int               ahead  = up ? half - 1 - id : id - half;
+        int               passed = ahead * block;
+
+        msg = new IntSlice(data, id * block, block);
+
+        // forward flits of processors further on the chain as they arrive
+        for (int n = 0; n < passed; ) {
+          IntSlice flit = link.receive();
+
+          if (n == 0) {
+            listener.procSent(id, dest, 1, msg,
+                              new IntSlice(data,
+                                           (up ? id + 1 : half) * block,
+                                           passed));
+          }
+          if (up) {
+            threads[dest].fromPrev.send(flit);
+          }
+          else {
+            threads[dest].fromNext.send(flit);
+          }
+          traffic.sent(id, 1, flit.length());
+          n += flit.length();
+        }
+
+        // the processor's own block comes last
+        for (int n = 0; n < block; ) {
+          n += link.receive().length();
+        }
+      }
+
+      // wait for all threads to complete distribution
+      barrier.join(id);
+
+      listener.phaseCompleted(1, true);
+      metrics.phaseDone(id);
+    }
+  }
+
+  OneToAllPersonRing(OneToAllPersonListener listener, int data[], int procNo) {
+    this(listener, data, procNo, new EngineConfig());
+  }
+
+  OneToAllPersonRing(OneToAllPersonListener listener, int data[], int procNo,
+                     EngineConfig config) {
+    this.listener = listener;
+    this.data     = data;
+    this.procNo   = procNo;
+    block         = data.length / procNo;
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+    routing       = config.getRoutingMode();
+    flitSize      = config.getFlitSize();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
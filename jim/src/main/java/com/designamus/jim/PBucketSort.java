@@ -1,104 +1,208 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import com.designamus.jim.util.Barrier;
-
-/**
-  * This class implements engine of parallel bucket sort algorithm on a ring.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/15/98
-  */
-class PBucketSort {
-  private PBucketSortListener listener;  // this algorithm listener
-  private int[]               seq;       // sequence to be sorted
-  private int                 min, max;  // interval of sequence values
-  private int                 procNo;    // number of processors
-  private Processor[]         threads;   // processors threads
-  private Barrier             barrier;   // used to synchronize threads
-
-  private class Processor extends Thread {
-    int id;          // unique processor label
-    int recvBuff[];  // receiving buffer
-
-    // buffer to hold an assigned block of elements
-    BucketsBuffer buff = new BucketsBuffer(procNo, min, max);  
-
-    Processor(int id) {
-      this.id = id;
-
-      // copy a block of elements to local buffer
-      for (int i = 0; i < seq.length / procNo; i++) {
-        buff.add(seq[i + (seq.length / procNo) * id]);
-      }
-    }
-
-    public void run() {
-      listener.procInited(id, buff.get());
-
-      for (int i = 1; i < procNo; i++) {
-        // label of the destination processor
-        int dest = (id + 1) % procNo;
-
-        /*
-        Send elements that do not belong to this processor bucket to the next
-        processor on the ring.
-        */
-        int data[] = buff.popExcept(id);
-        threads[dest].dataSent(data);
-
-        // synchronize all threads and read data from the receiving buffer
-        barrier.join();
-        buff.add(recvBuff);
-
-        listener.procSent(id, dest, i, buff.get(), data);
-
-        // wait for all threads to complete phase
-        barrier.join();
-
-        listener.phaseCompleted(i);
-      }
-
-      // sort the local buffer and return it
-      listener.procFinished(id, buff.getSorted()); 
-    }
-
-    // Receive and store elements in the buffer.
-    void dataSent(int data[]) {
-      recvBuff = data;
-    }
-  }
-
-  PBucketSort(PBucketSortListener l, int seq[], int min, int max, int procNo) {
-    listener    = l;
-    this.seq    = seq;
-    this.min    = min;
-    this.max    = max;
-    this.procNo = procNo;
-    threads     = new Processor[procNo];
-    barrier     = new Barrier(procNo);
-
-    // create and start processors threads
-    for (int i = 0; i < procNo; i++) {
-      threads[i] = new Processor(i);
-    }
-    for (int i = 0; i < procNo; i++) {
-      threads[i].start();
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.LocalSorter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+  * This class implements engine of parallel bucket sort algorithm on a ring.
+  * Elements are passed either store-and-forward, in p - 1 phases, or
+  * cut-through, when they are streamed around the ring in flits in a single
+  * phase.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.4 10/18/26
+  */
+class PBucketSort {
+  private PBucketSortListener listener;  // this algorithm listener
+  private int[]               seq;       // sequence to be sorted
+  private int                 min, max;  // interval of sequence values
+  private int                 procNo;    // number of processors
+  private Processor[]         threads;   // processors
+  private Barrier             barrier;   // used to synchronize threads
+  private Thread[]            runners;   // threads that run processors
+  private Traffic             traffic;   // counters of messages sent
+  private PhaseMetrics        metrics;   // times of phases
+  private LocalSorter         sorter;    // used to sort local elements
+  private RoutingMode         routing;   // how elements are passed on
+  private int                 flitSize;  // elements of a flit
+
+  private class Processor implements Runnable {
+    int            id;                          // unique processor label
+    Channel<int[]> in = new Channel<int[]>();  // link from the previous one
+
+    // marks the end of elements of this processor in the cut-through mode
+    final int eos[] = new int[0];
+
+    // buffer to hold an assigned block of elements
+    BucketsBuffer buff = new BucketsBuffer(procNo, min, max, sorter);  
+
+    Processor(int id) {
+      this.id = id;
+
+      // copy a block of elements to local buffer
+      int blockSize = seq.length / procNo;
+      buff.add(seq, blockSize * id, blockSize);
+    }
+
+    public void run() {
+      listener.procInited(id, buff.view());
+
+      if (routing == RoutingMode.CUT_THROUGH) {
+        stream();
+        listener.procFinished(id, buff.getSorted());
+        return;
+      }
+
+      for (int i = 1; i < procNo; i++) {
+        // label of the destination processor
+        int dest = (id + 1) % procNo;
+
+        /*
+        Send elements that do not belong to this processor bucket to the next
+        processor on the ring and take elements sent by the previous one as
+        soon as they arrive.
+        */
+        int data[] = buff.popExcept(id);
+        threads[dest].in.send(data);
+        traffic.sent(id, i, data.length);
+        buff.add(in.receive());
+
+        listener.procSent(id, dest, i, buff.view(), data);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i);
+        metrics.phaseDone(id);
+      }
+
+      // sort the local buffer and return it
+      listener.procFinished(id, buff.getSorted()); 
+    }
+
+    /*
+    Pass elements around the ring in the cut-through mode. Each processor
+    streams its foreign elements in flits followed by its end-of-stream marker.
+    A flit that arrives is forwarded at once without elements of this
+    processor bucket, and a marker is forwarded unless the next processor is
+    its origin. The processor has all its elements when it has seen markers
+    of all other processors.
+
+    Every processor both sends and receives, so it never waits on a full link.
+    Flits it can't pass on yet are queued locally (as in virtual cut-through),
+    otherwise all processors of the ring might wait on each other.
+    */
+    void stream() {
+      int               dest    = (id + 1) % procNo;
+      Channel<int[]>    out     = threads[dest].in;
+      ArrayDeque<int[]> queue   = new ArrayDeque<int[]>();  // flits to be sent
+      int               markers = 0;  // markers of other processors seen
+
+      int data[] = buff.popExcept(id);
+      for (int off = 0; off < data.length; off += flitSize) {
+        queue.add(Arrays.copyOfRange(data, off,
+                                     Math.min(data.length, off + flitSize)));
+      }
+      if (procNo > 1) {
+        queue.add(eos);
+        listener.procSent(id, dest, 1, buff.view(), data);
+      }
+
+      while (markers < procNo - 1 || !queue.isEmpty()) {
+        boolean progress = false;
+
+        if (!queue.isEmpty() && out.offer(queue.peek())) {
+          int sent[] = queue.poll();
+          if (sent.length > 0) {
+            traffic.sent(id, 1, sent.length);
+          }
+          progress = true;
+        }
+
+        int flit[] = in.poll();
+        if (flit != null) {
+          progress = true;
+
+          if (flit.length == 0) {
+            markers++;
+            if (flit != threads[dest].eos) {
+              queue.add(flit);
+            }
+          }
+          else {
+            int rest[] = buff.keep(flit, 0, flit.length, id);
+            if (rest.length > 0) {
+              queue.add(rest);
+            }
+          }
+        }
+
+        if (!progress) {
+          Thread.yield();
+        }
+      }
+
+      // wait for all threads to complete distribution
+      barrier.join(id);
+
+      listener.phaseCompleted(1);
+      metrics.phaseDone(id);
+    }
+  }
+
+  PBucketSort(PBucketSortListener l, int seq[], int min, int max, int procNo) {
+    this(l, seq, min, max, procNo, new EngineConfig());
+  }
+
+  PBucketSort(PBucketSortListener l, int seq[], int min, int max, int procNo,
+              EngineConfig config) {
+    listener    = l;
+    sorter      = config.getSorter();
+    this.seq    = seq;
+    this.min    = min;
+    this.max    = max;
+    this.procNo = procNo;
+    threads     = new Processor[procNo];
+    barrier     = config.createBarrier(procNo);
+    traffic     = config.getTraffic();
+    metrics     = config.getMetrics();
+    routing     = config.getRoutingMode();
+    flitSize    = config.getFlitSize();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
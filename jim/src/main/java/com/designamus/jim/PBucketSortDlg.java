@@ -1,298 +1,349 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import java.awt.BorderLayout;
-import java.awt.Component;
-import java.awt.Dimension;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
-import java.awt.GridLayout;
-import java.awt.Insets;
-import java.awt.Toolkit;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-
-import javax.swing.BorderFactory;
-import javax.swing.ImageIcon;
-import javax.swing.JButton;
-import javax.swing.JComboBox;
-import javax.swing.JDialog;
-import javax.swing.JFrame;
-import javax.swing.JLabel;
-import javax.swing.JPanel;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
-import javax.swing.border.TitledBorder;
-
-/**
-  * This class represents a dialog that shows a demonstration of bucket sort
-  * algorithm on a ring.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/25/98
-  */
-class PBucketSortDlg extends JDialog implements PBucketSortListener {                                    
-  private ProcessorsPanel procPan;  // component that visualizes processors
-  private JComboBox       cbSize;   // input sequence size
-  private JComboBox       cbProc;   // number of processors
-  private JTextArea       taDebug;  // algorithm output messages
-  private JButton         bStart;
-  private JButton         bNext;
-
-  // used to synchronize visualization of subsequent algorithm splits
-  private Object lock = new Object();
-
-  /*
-  This class implements a custom titled border. The base class version doesn't
-  provide enough empty space around it.
-  */
-  private class MyTitledBorder extends TitledBorder {
-    MyTitledBorder(String title) {
-      super(title);
-    }
-
-    public Insets getBorderInsets(Component c) {
-      return new Insets(20, 10, 10, 10);
-    }
-  }
-
-  PBucketSortDlg(JFrame owner) {
-    super(owner, "Parallel Bucket Sort on a Ring (SF)", true);
-
-    JPanel panel = new JPanel(new BorderLayout());
-    panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    panel.add(createMainPanel(), BorderLayout.CENTER);
-
-    procPan = new ProcessorsPanel(8, 160, 40);
-    procPan.setBorder(new MyTitledBorder("Processors"));
-    panel.add(procPan, BorderLayout.EAST);
-
-    panel.add(createButtonPanel(), BorderLayout.SOUTH);
-    getContentPane().add(panel);
-    pack();
-    setResizable(false);
-
-    // center the dialog on the screen
-    Dimension scr = Toolkit.getDefaultToolkit().getScreenSize();
-    Dimension dlg = getSize();
-    setLocation((scr.width - dlg.width) / 2, (scr.height - dlg.height) / 2);    
-  }
-
-  // Create the main panel and return handle to it.
-  private JPanel createMainPanel() {
-    GridBagLayout      gb    = new GridBagLayout();
-    GridBagConstraints c     = new GridBagConstraints();
-    JPanel             panel = new JPanel(gb);
-    panel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
-
-    JLabel lHypercube = new JLabel(new ImageIcon(getClass().getResource(
-                                   "images/ring.gif")));
-    c.gridx           = 0; 
-    c.gridy           = 0;
-    c.anchor          = c.CENTER;
-    c.gridwidth       = c.REMAINDER;
-    c.insets          = new Insets(0, 0, 10, 0);
-    gb.setConstraints(lHypercube, c);
-    panel.add(lHypercube);
-
-    JLabel lSize = new JLabel("Input sequence size:");
-    lSize.setDisplayedMnemonic('I');
-    c.gridx      = 0; 
-    c.gridy      = 1;
-    c.anchor     = c.EAST;
-    c.gridwidth  = c.RELATIVE;
-    c.insets     = new Insets(0, 0, 10, 0);
-    gb.setConstraints(lSize, c);
-    panel.add(lSize);
-    cbSize       = new JComboBox(new Object[] { "8", "80", "160" });
-    cbSize.setSelectedIndex(2);
-    lSize.setLabelFor(cbSize);
-    c.gridx      = 1; 
-    c.gridy      = 1;
-    c.anchor     = c.WEST;
-    c.insets     = new Insets(0, 5, 10, 0);
-    gb.setConstraints(cbSize, c);
-    panel.add(cbSize);
-
-    JLabel lProc = new JLabel("Number of processors:");
-    lProc.setDisplayedMnemonic('N');
-    c.gridx      = 0; 
-    c.gridy      = 2;
-    c.anchor     = c.EAST;
-    c.insets     = new Insets(0, 0, 10, 0);
-    gb.setConstraints(lProc, c);
-    panel.add(lProc);
-    cbProc       = new JComboBox(new Object[] { "1", "2", "4", "8" });
-    cbProc.setSelectedIndex(3);
-    lProc.setLabelFor(cbProc);
-    c.gridx      = 1; 
-    c.gridy      = 2;
-    c.anchor     = c.WEST;
-    c.insets     = new Insets(0, 5, 10, 0);
-    gb.setConstraints(cbProc, c);
-    panel.add(cbProc);
-
-    taDebug        = new JTextArea(10, 40);
-    taDebug.setEditable(false);
-    taDebug.setLineWrap(true);
-    JScrollPane sp = new JScrollPane(taDebug); 
-    c.gridx        = 0; 
-    c.gridy        = 3;
-    c.anchor       = c.CENTER;
-    c.gridwidth    = c.REMAINDER;
-    c.insets       = new Insets(0, 0, 10, 0);
-    gb.setConstraints(sp, c);
-    panel.add(sp);
-
-    return panel;
-  }
-
-  // Create buttons panel and return handle to it.
-  private JPanel createButtonPanel() {
-    GridBagLayout      gb    = new GridBagLayout();
-    GridBagConstraints c     = new GridBagConstraints();
-    JPanel             panel = new JPanel(gb);
-
-    JPanel buttons = new JPanel(new GridLayout(1, 3, 10, 0));
-
-    bStart = new JButton("Start");
-    bStart.setMnemonic('S');
-    bStart.addActionListener(new StartButtListener());
-    buttons.add(bStart);
-
-    bNext = new JButton("Next");
-    bNext.setEnabled(false);
-    bNext.addActionListener(new NextButtListener());
-    bNext.setMnemonic('N');
-    buttons.add(bNext);
-
-    JButton bClose = new JButton("Close");
-    bClose.addActionListener(new ActionListener() {
-      public void actionPerformed(ActionEvent e) {
-        dispose();
-      }
-    });
-    bClose.setMnemonic('C');
-    buttons.add(bClose);
-
-    c.gridx     = 0; 
-    c.gridy     = 0;
-    c.anchor    = c.CENTER;
-    c.gridwidth = c.REMAINDER;
-    c.insets    = new Insets(10, 0, 0, 0);
-    gb.setConstraints(buttons, c);
-    panel.add(buttons);
-
-    return panel;
-  }
-
-  /*
-  Listeners for buttons.
-  */
-
-  private class StartButtListener implements ActionListener {
-    public void actionPerformed(ActionEvent e) {
-      taDebug.setText("");
-      procPan.clear();
-
-      int seqSize = 0;
-      try { 
-        seqSize = Integer.parseInt((String)cbSize.getSelectedItem());
-      }
-      catch (NumberFormatException ex) {
-      }
-
-      int seq[] = new int[seqSize];
-      for (int i = 0; i < seq.length; i++) {
-        seq[i] = (int)(Math.random() * 100);
-      }
-
-      new PBucketSort(PBucketSortDlg.this, seq, 0, 99, 
-                      1 << cbProc.getSelectedIndex());
-      bStart.setEnabled(false);
-      cbSize.setEnabled(false);
-      cbProc.setEnabled(false);
-      bNext.setEnabled(true);
-    }
-  }
-
-  private class NextButtListener implements ActionListener {
-    public void actionPerformed(ActionEvent e) {
-      taDebug.setText("");
-
-      // wake up processors threads so algorithm can proceed 
-      synchronized(lock) {
-        lock.notifyAll();
-      }
-    }
-  }
-
-  /*
-  PBucketSortListener implementation. These callback methods are invoked during
-  the execution of the algorithm.
-  */
-
-  public void procInited(int id, int data[]) {
-    taDebug.append("P" + id + " has received and partitioned its block of " +
-                   "elements\n");
-    procPan.setData(id, data, -1);
-
-    // force a thread to wait until the "Next" button is pressed
-    synchronized(lock) {
-      try {
-        lock.wait();
-      }
-      catch (InterruptedException e) {
-      } 
-    }
-  }
-
-  public void procSent(int id, int to, int phase, int buff[], int data[]) {
-    taDebug.append("[phase " + phase + "]: " +
-                   "P" + id + " has sent a bucket to P" + to + "\n");
-
-    // update the sending processor
-    procPan.setData(id, buff, -1);
-
-    // update the receiving processor
-    procPan.setData(to, data, -1);
-  }
-
-  public void phaseCompleted(int phase) {
-    // force a thread to wait until the "Next" button is pressed
-    synchronized(lock) {
-      try {
-        lock.wait();
-      }
-      catch (InterruptedException e) {
-      } 
-    }
-  }
-
-  public void procFinished(int id, int sorted[]) {
-    if (sorted.length > 0) {
-      taDebug.append("P" + id + " has sorted its elements\n");
-      procPan.setData(id, sorted, -1);
-    }
- 
-    bStart.setEnabled(true);
-    cbSize.setEnabled(true);
-    cbProc.setEnabled(true);
-    bNext.setEnabled(false);
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.GridLayout;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.border.TitledBorder;
+
+import com.designamus.jim.util.IntView;
+
+/**
+  * This class represents a dialog that shows a demonstration of bucket sort
+  * algorithm on a ring.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.4 10/18/26
+  */
+class PBucketSortDlg extends JDialog implements PBucketSortListener {                                    
+  // title of the dialog, followed by the routing mode
+  private static final String TITLE = "Parallel Bucket Sort on a Ring";
+
+  private ProcessorsPanel procPan;  // component that visualizes processors
+  private JComboBox       cbSize;   // input sequence size
+  private JComboBox       cbProc;   // number of processors
+  private JComboBox       cbRouting;  // routing mode
+  private JComboBox       cbFlit;     // flit size in the cut-through mode
+  private EventLogPanel   logPan;   // algorithm output messages
+  private JButton         bStart;
+  private JButton         bNext;
+
+  // delivers callbacks of the engine on the event dispatch thread
+  private AsyncListener events;
+
+  /*
+  This class implements a custom titled border. The base class version doesn't
+  provide enough empty space around it.
+  */
+  private class MyTitledBorder extends TitledBorder {
+    MyTitledBorder(String title) {
+      super(title);
+    }
+
+    public Insets getBorderInsets(Component c) {
+      return new Insets(20, 10, 10, 10);
+    }
+  }
+
+  PBucketSortDlg(JFrame owner) {
+    super(owner, TITLE + " (SF)", true);
+
+    JPanel panel = new JPanel(new BorderLayout());
+    panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    panel.add(createMainPanel(), BorderLayout.CENTER);
+
+    procPan = new ProcessorsPanel(8, 160, 40);
+    procPan.setBorder(new MyTitledBorder("Processors"));
+    panel.add(procPan, BorderLayout.EAST);
+
+    panel.add(createButtonPanel(), BorderLayout.SOUTH);
+    getContentPane().add(panel);
+    pack();
+    setResizable(false);
+
+    // center the dialog on the screen
+    Dimension scr = Toolkit.getDefaultToolkit().getScreenSize();
+    Dimension dlg = getSize();
+    setLocation((scr.width - dlg.width) / 2, (scr.height - dlg.height) / 2);    
+  }
+
+  // Create the main panel and return handle to it.
+  private JPanel createMainPanel() {
+    GridBagLayout      gb    = new GridBagLayout();
+    GridBagConstraints c     = new GridBagConstraints();
+    JPanel             panel = new JPanel(gb);
+    panel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
+
+    JLabel lHypercube = new JLabel(new ImageIcon(getClass().getResource(
+                                   "images/ring.gif")));
+    c.gridx           = 0; 
+    c.gridy           = 0;
+    c.anchor          = c.CENTER;
+    c.gridwidth       = c.REMAINDER;
+    c.insets          = new Insets(0, 0, 10, 0);
+    gb.setConstraints(lHypercube, c);
+    panel.add(lHypercube);
+
+    JLabel lSize = new JLabel("Input sequence size:");
+    lSize.setDisplayedMnemonic('I');
+    c.gridx      = 0; 
+    c.gridy      = 1;
+    c.anchor     = c.EAST;
+    c.gridwidth  = c.RELATIVE;
+    c.insets     = new Insets(0, 0, 10, 0);
+    gb.setConstraints(lSize, c);
+    panel.add(lSize);
+    cbSize       = new JComboBox(new Object[] { "8", "80", "160", "1600",
+                                                "16000" });
+    cbSize.setSelectedIndex(2);
+    lSize.setLabelFor(cbSize);
+    c.gridx      = 1; 
+    c.gridy      = 1;
+    c.anchor     = c.WEST;
+    c.insets     = new Insets(0, 5, 10, 0);
+    gb.setConstraints(cbSize, c);
+    panel.add(cbSize);
+
+    JLabel lProc = new JLabel("Number of processors:");
+    lProc.setDisplayedMnemonic('N');
+    c.gridx      = 0; 
+    c.gridy      = 2;
+    c.anchor     = c.EAST;
+    c.insets     = new Insets(0, 0, 10, 0);
+    gb.setConstraints(lProc, c);
+    panel.add(lProc);
+    cbProc       = new JComboBox(new Object[] { "1", "2", "4", "8", "16", "32",
+                                                "64", "128", "256", "512",
+                                                "1024" });
+    cbProc.setSelectedIndex(3);
+    lProc.setLabelFor(cbProc);
+    c.gridx      = 1; 
+    c.gridy      = 2;
+    c.anchor     = c.WEST;
+    c.insets     = new Insets(0, 5, 10, 0);
+    gb.setConstraints(cbProc, c);
+    panel.add(cbProc);
+
+    JLabel lRouting = new JLabel("Routing:");
+    lRouting.setDisplayedMnemonic('R');
+    c.gridx         = 0; 
+    c.gridy         = 3;
+    c.anchor        = c.EAST;
+    c.insets        = new Insets(0, 0, 10, 0);
+    gb.setConstraints(lRouting, c);
+    panel.add(lRouting);
+    cbRouting       = new JComboBox(new Object[] { "Store-and-forward",
+                                                   "Cut-through" });
+    cbRouting.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        setTitle(TITLE + " (" + getRoutingMode().getAbbreviation() + ")");
+      }
+    });
+    lRouting.setLabelFor(cbRouting);
+    c.gridx         = 1; 
+    c.gridy         = 3;
+    c.anchor        = c.WEST;
+    c.insets        = new Insets(0, 5, 10, 0);
+    gb.setConstraints(cbRouting, c);
+    panel.add(cbRouting);
+
+    JLabel lFlit = new JLabel("Flit size:");
+    lFlit.setDisplayedMnemonic('F');
+    c.gridx      = 0; 
+    c.gridy      = 4;
+    c.anchor     = c.EAST;
+    c.insets     = new Insets(0, 0, 10, 0);
+    gb.setConstraints(lFlit, c);
+    panel.add(lFlit);
+    cbFlit       = new JComboBox(new Object[] { "1", "4", "16", "1024" });
+    cbFlit.setSelectedIndex(3);
+    lFlit.setLabelFor(cbFlit);
+    c.gridx      = 1; 
+    c.gridy      = 4;
+    c.anchor     = c.WEST;
+    c.insets     = new Insets(0, 5, 10, 0);
+    gb.setConstraints(cbFlit, c);
+    panel.add(cbFlit);
+
+    logPan         = new EventLogPanel("phase", 10, 40);
+    c.gridx        = 0; 
+    c.gridy        = 5;
+    c.anchor       = c.CENTER;
+    c.gridwidth    = c.REMAINDER;
+    c.insets       = new Insets(0, 0, 10, 0);
+    gb.setConstraints(logPan, c);
+    panel.add(logPan);
+
+    return panel;
+  }
+
+  // Create buttons panel and return handle to it.
+  private JPanel createButtonPanel() {
+    GridBagLayout      gb    = new GridBagLayout();
+    GridBagConstraints c     = new GridBagConstraints();
+    JPanel             panel = new JPanel(gb);
+
+    JPanel buttons = new JPanel(new GridLayout(1, 3, 10, 0));
+
+    bStart = new JButton("Start");
+    bStart.setMnemonic('S');
+    bStart.addActionListener(new StartButtListener());
+    buttons.add(bStart);
+
+    bNext = new JButton("Next");
+    bNext.setEnabled(false);
+    bNext.addActionListener(new NextButtListener());
+    bNext.setMnemonic('N');
+    buttons.add(bNext);
+
+    JButton bClose = new JButton("Close");
+    bClose.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        dispose();
+        if (events != null) {
+          events.close();
+        }
+      }
+    });
+    bClose.setMnemonic('C');
+    buttons.add(bClose);
+
+    c.gridx     = 0; 
+    c.gridy     = 0;
+    c.anchor    = c.CENTER;
+    c.gridwidth = c.REMAINDER;
+    c.insets    = new Insets(10, 0, 0, 0);
+    gb.setConstraints(buttons, c);
+    panel.add(buttons);
+
+    return panel;
+  }
+
+  // Return the routing mode chosen for the next run.
+  private RoutingMode getRoutingMode() {
+    return (cbRouting.getSelectedIndex() == 0) ? RoutingMode.STORE_AND_FORWARD
+                                               : RoutingMode.CUT_THROUGH;
+  }
+
+  /*
+  Listeners for buttons.
+  */
+
+  private class StartButtListener implements ActionListener {
+    public void actionPerformed(ActionEvent e) {
+      // events of the previous run aren't shown any more
+      if (events != null) {
+        events.close();
+      }
+      events = new AsyncListener(PBucketSortDlg.this);
+
+      int seqSize = 0;
+      int procNo  = 1 << cbProc.getSelectedIndex();
+
+      procPan.setProcessors(procNo);
+      logPan.clear(procNo);
+
+      try { 
+        seqSize = Integer.parseInt((String)cbSize.getSelectedItem());
+      }
+      catch (NumberFormatException ex) {
+      }
+
+      int seq[] = new int[seqSize];
+      for (int i = 0; i < seq.length; i++) {
+        seq[i] = (int)(Math.random() * 100);
+      }
+
+      EngineConfig config = new EngineConfig();
+      config.setRoutingMode(getRoutingMode());
+      config.setFlitSize(Integer.parseInt((String)cbFlit.getSelectedItem()));
+
+      new PBucketSort(events, seq, 0, 99, procNo, config);
+      bStart.setEnabled(false);
+      cbSize.setEnabled(false);
+      cbProc.setEnabled(false);
+      cbRouting.setEnabled(false);
+      cbFlit.setEnabled(false);
+      bNext.setEnabled(true);
+    }
+  }
+
+  private class NextButtListener implements ActionListener {
+    public void actionPerformed(ActionEvent e) {
+      // let the next step be shown
+      events.step();
+    }
+  }
+
+  /*
+  PBucketSortListener implementation. These callback methods are invoked on
+  the event dispatch thread, in the order processors have called them.
+  */
+
+  public void procInited(int id, IntView data) {
+    logPan.add(id, "P%1$d has received and partitioned its block of " +
+                   "elements");
+    procPan.setData(id, data.toArray(), -1);
+  }
+
+  public void procSent(int id, int to, int phase, IntView buff, int data[]) {
+    logPan.add(id, phase, "P%1$d has sent a bucket to P%2$d", to);
+
+    // update the sending processor
+    procPan.setData(id, buff.toArray(), -1);
+
+    // update the receiving processor
+    procPan.setData(to, data, -1);
+    procPan.transferred(id, to, data.length);
+  }
+
+  public void phaseCompleted(int phase) {
+    // the next step is shown when the "Next" button is pressed
+  }
+
+  public void procFinished(int id, int sorted[]) {
+    if (sorted.length > 0) {
+      logPan.add(id, "P%1$d has sorted its elements");
+      procPan.setData(id, sorted, -1);
+    }
+    procPan.finished(id);
+ 
+    bStart.setEnabled(true);
+    cbSize.setEnabled(true);
+    cbProc.setEnabled(true);
+    cbRouting.setEnabled(true);
+    cbFlit.setEnabled(true);
+    bNext.setEnabled(false);
+  }
+}
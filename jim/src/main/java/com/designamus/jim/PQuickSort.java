@@ -1,110 +1,241 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import com.designamus.jim.util.Barrier;
-
-/**
-  * This class implements engine of parallel quick sort algorithm on a
-  * hypercube.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.1 11/01/98
-  */
-class PQuickSort {
-  private PQuickSortListener listener;  // this algorithm listener
-  private int[]              seq;       // sequence to be sorted
-  private int                pivot;     // used to partition elements
-  private int                d;         // dimension of hypercube
-  private int                procNo;    // number of processors
-  private Processor[]        threads;   // processors threads
-  private Barrier            barrier;   // used to synchronize threads
-
-  private class Processor extends Thread {
-    int id;  // unique processor label
-
-    // buffer to hold an assigned block of elements
-    PartitionBuffer buff = new PartitionBuffer(pivot);  
-
-    Processor(int id) {
-      this.id = id;
-
-      // copy a block of elements to local buffer
-      for (int i = 0; i < seq.length / procNo; i++) {
-        buff.add(seq[i + (seq.length / procNo) * id]);
-      }
-    }
-
-    public void run() {
-      listener.procInited(id, buff.get());
-
-      for (int i = 1; i <= d; i++) {
-        /*
-        Label of the destination processor along the ith communication link
-        (labels of processors that exchange data differ on the ith bit position
-        of their binary representation).
-        */
-        int dest = id ^ (1 << (i - 1));
-
-        // if ith bit is 0
-        if ((id & (1 << (i - 1))) == 0) {
-          // send elements greater than pivot
-          threads[dest].dataSent(buff.popRight());
-
-          listener.procSentRight(id, dest, i, buff.get());
-        }
-        else {
-          // send elements less and equal to pivot
-          threads[dest].dataSent(buff.popLeft());
-
-          listener.procSentLeft(id, dest, i, buff.get());
-        }
-
-        // wait for all threads to complete split
-        barrier.join();
-
-        listener.splitCompleted(i);
-      }
-
-      // sort the local buffer and return it
-      listener.procFinished(id, buff.getSorted()); 
-    }
-
-    // Receive and store elements in the buffer.
-    void dataSent(int data[]) {
-      buff.add(data);
-    }
-  }
-
-  PQuickSort(PQuickSortListener listener, int seq[], int pivot, int d) {
-    this.listener = listener;
-    this.seq      = seq;
-    this.pivot    = pivot;
-    this.d        = d;
-    procNo        = 1 << d;
-    threads       = new Processor[procNo];
-    barrier       = new Barrier(procNo);
-
-    // create and start processors threads
-    for (int i = 0; i < procNo; i++) {
-      threads[i] = new Processor(i);
-    }
-    for (int i = 0; i < procNo; i++) {
-      threads[i].start();
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.Arrays;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.LocalSorter;
+
+/**
+  * This class implements engine of parallel quick sort algorithm on a
+  * hypercube.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.3 10/18/26
+  */
+class PQuickSort {
+  private PQuickSortListener listener;  // this algorithm listener
+  private int[]              seq;       // sequence to be sorted
+  private int                pivot;     // used to partition elements
+  private int                d;         // dimension of hypercube
+  private int                procNo;    // number of processors
+  private Processor[]        threads;   // processors
+  private Barrier            barrier;   // used to synchronize threads
+  private Thread[]           runners;   // threads that run processors
+  private Traffic            traffic;   // counters of messages sent
+  private PhaseMetrics       metrics;   // times of phases
+  private LocalSorter        sorter;    // used to sort local elements
+  private boolean            adaptive;  // true if subcubes choose pivots
+  private int[]              medians;   // medians of processors elements
+  private int[]              counts;    // number of processors elements
+  private int[]              pivots;    // pivots chosen by subcubes leaders
+
+  private class Processor implements Runnable {
+    int              id;    // unique processor label
+    Channel<int[]>[] in;    // incoming links, one for each dimension
+
+    // buffer to hold an assigned block of elements
+    PartitionBuffer buff = new PartitionBuffer(pivot, sorter);  
+
+    @SuppressWarnings("unchecked")
+    Processor(int id) {
+      this.id = id;
+      in      = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<int[]>();
+      }
+
+      // copy a block of elements to local buffer
+      int blockSize = seq.length / procNo;
+      buff.add(seq, blockSize * id, blockSize);
+    }
+
+    public void run() {
+      listener.procInited(id, buff.view());
+
+      for (int i = 1; i <= d; i++) {
+        /*
+        Label of the destination processor along the communication link that
+        is used in the ith split (labels of processors that exchange data
+        differ on the bit position of the link in their binary representation).
+        Subcubes that choose their own pivots split from the highest dimension
+        down, so their blocks end up sorted in the order of labels; with a
+        single pivot splits go from the lowest dimension up as they always
+        have.
+        */
+        int link = adaptive ? d - i : i - 1;
+        int bit  = 1 << link;
+        int dest = id ^ bit;
+
+        if (adaptive) {
+          selectPivot(bit);
+        }
+        listener.pivotSelected(id, i, buff.getPivot());
+
+        // if the bit of the link is 0
+        if ((id & bit) == 0) {
+          // send elements greater than pivot and take the partner's
+          int data[] = buff.popRight();
+          threads[dest].in[link].send(data);
+          traffic.sent(id, i, data.length);
+          buff.add(in[link].receive());
+
+          listener.procSentRight(id, dest, i, buff.view(), data.length);
+        }
+        else {
+          // send elements less and equal to pivot and take the partner's
+          int data[] = buff.popLeft();
+          threads[dest].in[link].send(data);
+          traffic.sent(id, i, data.length);
+          buff.add(in[link].receive());
+
+          listener.procSentLeft(id, dest, i, buff.view(), data.length);
+        }
+
+        // wait for all threads to complete split
+        barrier.join(id);
+
+        listener.splitCompleted(i);
+        metrics.phaseDone(id);
+      }
+
+      // sort the local buffer and return it
+      listener.procFinished(id, buff.getSorted()); 
+    }
+
+    /*
+    Choose the pivot of the subcube this processor belongs to for the split
+    along a given link. Each processor publishes the median of its elements
+    and the processor with the lowest label in the subcube takes the median of
+    these medians weighted by the number of elements.
+    */
+    private void selectPivot(int bit) {
+      counts[id]  = buff.size();
+      medians[id] = buff.median();
+      barrier.join(id);
+
+      // the subcube is made of processors whose labels differ on lower bits
+      int leader = id & ~((bit << 1) - 1);
+      if (id == leader) {
+        pivots[leader] = weightedMedian(leader, bit << 1);
+      }
+      barrier.join(id);
+
+      buff.setPivot(pivots[leader]);
+    }
+  }
+
+  PQuickSort(PQuickSortListener listener, int seq[], int pivot, int d) {
+    this(listener, seq, pivot, d, new EngineConfig());
+  }
+
+  /*
+  Create the engine that uses a given pivot in all splits of all subcubes. It
+  only balances the load if the pivot is close to the median of the sequence.
+  */
+  PQuickSort(PQuickSortListener listener, int seq[], int pivot, int d,
+             EngineConfig config) {
+    this(listener, seq, pivot, d, false, config);
+  }
+
+  /*
+  Create the engine where each subcube chooses its own pivot before every
+  split, so the load stays balanced whatever the input distribution is.
+  */
+  PQuickSort(PQuickSortListener listener, int seq[], int d,
+             EngineConfig config) {
+    this(listener, seq, 0, d, true, config);
+  }
+
+  private PQuickSort(PQuickSortListener listener, int seq[], int pivot, int d,
+                     boolean adaptive, EngineConfig config) {
+    this.listener = listener;
+    this.adaptive = adaptive;
+    sorter        = config.getSorter();
+    this.seq      = seq;
+    this.pivot    = pivot;
+    this.d        = d;
+    procNo        = 1 << d;
+    threads       = new Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    if (adaptive) {
+      medians = new int[procNo];
+      counts  = new int[procNo];
+      pivots  = new int[procNo];
+    }
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  /*
+  Return the weighted median of medians of a given range of processors. Empty
+  processors are skipped, the pivot is 0 if all of them are empty.
+  */
+  private int weightedMedian(int from, int count) {
+    long pairs[] = new long[count];
+    long total   = 0;
+    int  n       = 0;
+
+    /*
+    Pairs keep a median in the upper half and its weight in the lower half,
+    so they sort by median.
+    */
+    for (int i = from; i < from + count; i++) {
+      if (counts[i] > 0) {
+        pairs[n++] = ((long)medians[i] << 32) | counts[i];
+        total     += counts[i];
+      }
+    }
+    if (n == 0) {
+      return 0;
+    }
+    Arrays.sort(pairs, 0, n);
+
+    long half = 0;
+    for (int i = 0; i < n; i++) {
+      half += (int)pairs[i];
+      if (2 * half > total || i == n - 1) {
+        return (int)(pairs[i] >> 32);
+      }
+      if (2 * half == total) {
+        // the median falls between two medians, split the difference
+        return (int)(((pairs[i] >> 32) + (pairs[i + 1] >> 32)) >> 1);
+      }
+    }
+    return 0;
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
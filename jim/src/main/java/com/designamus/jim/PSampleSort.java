@@ -0,0 +1,266 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.util.Arrays;
+
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntSlice;
+import com.designamus.jim.util.LocalSorter;
+import com.designamus.jim.util.LocalSorters;
+
+/**
+  * This class implements engine of parallel sorting by regular sampling. Each
+  * processor sorts its block and picks regular samples, splitters are chosen
+  * from all samples and each processor sends every other processor the part
+  * of its block that falls between their splitters. Received parts are merged.
+  * <p>
+  * Samples and splitters are ordered by value and then by the position of
+  * the element in the input sequence, so equal elements can be split between
+  * processors too and no processor ends up with more than about 2n/p elements
+  * whatever the distribution of values is.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class PSampleSort {
+  // number of phases that are completed by barrier synchronization
+  static final int PHASES = 3;
+
+  private PSampleSortListener listener;   // this algorithm listener
+  private int[]               seq;        // sequence to be sorted
+  private int                 procNo;     // number of processors
+  private int                 blockSize;  // number of elements of a block
+  private Processor[]         threads;    // processors
+  private Barrier             barrier;    // used to synchronize threads
+  private Thread[]            runners;    // threads that run processors
+  private Traffic             traffic;    // counters of messages sent
+  private PhaseMetrics        metrics;    // times of phases
+  private LocalSorter         sorter;     // used to sort local elements
+  private long[]              samples;    // samples of all processors
+  private long[]              splitters;  // chosen from samples by P0
+
+  private class Processor implements Runnable {
+    int              id;       // unique processor label
+    int              block[];  // assigned block of elements
+    Channel<int[]>[] in;       // incoming links, one from each processor
+
+    @SuppressWarnings("unchecked")
+    Processor(int id) {
+      this.id = id;
+      in      = new Channel[procNo];
+      for (int i = 0; i < procNo; i++) {
+        in[i] = new Channel<int[]>();
+      }
+
+      // copy a block of elements
+      block = Arrays.copyOfRange(seq, blockSize * id, blockSize * (id + 1));
+    }
+
+    public void run() {
+      listener.procInited(id, new IntSlice(block));
+
+      // sort the block and pick procNo evenly spaced samples
+      LocalSorter s = sorter;
+      if (s == null) {
+        s = LocalSorters.select(block, 0, block.length);
+      }
+      s.sort(block, 0, block.length);
+
+      int values[] = new int[procNo];
+      for (int i = 0; i < procNo; i++) {
+        int k = (int)((long)i * block.length / procNo);
+        samples[id * procNo + i] = key(block[k], k);
+        values[i]                = block[k];
+      }
+      listener.procSampled(id, values);
+
+      // samples are gathered at P0
+      if (id != 0) {
+        traffic.sent(id, 1, procNo);
+      }
+
+      barrier.join(id);
+      listener.phaseCompleted(1);
+      metrics.phaseDone(id);
+
+      // P0 chooses splitters from the sorted samples
+      if (id == 0) {
+        selectSplitters();
+
+        // and splitters are sent to other processors
+        for (int i = 1; i < procNo; i++) {
+          traffic.sent(id, 2, procNo - 1);
+        }
+      }
+
+      barrier.join(id);
+      listener.phaseCompleted(2);
+      metrics.phaseDone(id);
+
+      // send each processor the part of the block between its splitters
+      int from = 0;
+      for (int i = 0; i < procNo; i++) {
+        int to = (i < procNo - 1) ? lowerBound(splitters[i]) : block.length;
+        int data[] = Arrays.copyOfRange(block, from, to);
+
+        threads[i].in[id].send(data);
+        if (i != id) {
+          traffic.sent(id, 3, data.length);
+        }
+        listener.procSent(id, i, data);
+        from = to;
+      }
+
+      // take parts in the order of senders, so runs follow keys order
+      int runs[][] = new int[procNo][];
+      for (int i = 0; i < procNo; i++) {
+        runs[i] = in[i].receive();
+      }
+
+      barrier.join(id);
+      listener.phaseCompleted(3);
+      metrics.phaseDone(id);
+
+      // merge received parts and return them
+      listener.procFinished(id, merge(runs));
+    }
+
+    // Return the key of the kth element of the sorted block.
+    private long key(int e, int k) {
+      // the position is less than the length of the sequence, so it fits
+      return ((long)e << 32) | (blockSize * id + k);
+    }
+
+    // Return index of the first element of the block not less than a key.
+    private int lowerBound(long key) {
+      int lo = 0;
+      int hi = block.length;
+
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (key(block[mid], mid) < key) {
+          lo = mid + 1;
+        }
+        else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+
+  PSampleSort(PSampleSortListener l, int seq[], int procNo) {
+    this(l, seq, procNo, new EngineConfig());
+  }
+
+  PSampleSort(PSampleSortListener l, int seq[], int procNo,
+              EngineConfig config) {
+    listener    = l;
+    sorter      = config.getSorter();
+    this.seq    = seq;
+    this.procNo = procNo;
+    blockSize   = seq.length / procNo;
+    threads     = new Processor[procNo];
+    barrier     = config.createBarrier(procNo);
+    traffic     = config.getTraffic();
+    metrics     = config.getMetrics();
+    samples     = new long[procNo * procNo];
+    splitters   = new long[procNo - 1];
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  /*
+  Sort samples and take every procNo-th of them. Each sample stands for the
+  elements of its block up to the next sample, so the ith splitter is close to
+  the ith procNo-quantile of the whole sequence.
+  */
+  private void selectSplitters() {
+    Arrays.sort(samples);
+
+    int values[] = new int[procNo - 1];
+    for (int i = 1; i < procNo; i++) {
+      splitters[i - 1] = samples[i * procNo];
+      values[i - 1]    = (int)(splitters[i - 1] >> 32);
+    }
+    listener.splittersSelected(values);
+  }
+
+  /*
+  Merge sorted runs into a single sorted array. Adjacent runs are merged in
+  pairs, so every element is copied once per level of a binary tree of runs.
+  */
+  private static int[] merge(int runs[][]) {
+    int bounds[] = new int[runs.length + 1];
+    for (int i = 0; i < runs.length; i++) {
+      bounds[i + 1] = bounds[i] + runs[i].length;
+    }
+
+    int a[] = new int[bounds[runs.length]];
+    for (int i = 0; i < runs.length; i++) {
+      System.arraycopy(runs[i], 0, a, bounds[i], runs[i].length);
+    }
+
+    int b[] = new int[a.length];
+    for (int width = 1; width < runs.length; width <<= 1) {
+      for (int i = 0; i < runs.length; i += 2 * width) {
+        int lo  = bounds[i];
+        int mid = bounds[Math.min(i + width, runs.length)];
+        int hi  = bounds[Math.min(i + 2 * width, runs.length)];
+        merge(a, lo, mid, hi, b);
+      }
+
+      int t[] = a;
+      a = b;
+      b = t;
+    }
+
+    return a;
+  }
+
+  // Merge sorted ranges [lo, mid) and [mid, hi) of src into the same of dst.
+  private static void merge(int src[], int lo, int mid, int hi, int dst[]) {
+    int i = lo;
+    int j = mid;
+
+    for (int k = lo; k < hi; k++) {
+      if (j >= hi || (i < mid && src[i] <= src[j])) {
+        dst[k] = src[i++];
+      }
+      else {
+        dst[k] = src[j++];
+      }
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntView;
+
+/**
+  * This interface is a bridge between sample sort engine and GUI that
+  * visualizes the algorithm.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+interface PSampleSortListener {
+  void procInited(int id, IntView data);
+  void procSampled(int id, int samples[]);
+  void splittersSelected(int splitters[]);
+  void procSent(int id, int to, int data[]);
+  void phaseCompleted(int phase);
+  void procFinished(int id, int sorted[]);
+}
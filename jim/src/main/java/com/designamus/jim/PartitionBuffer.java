@@ -1,119 +1,287 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import java.util.Vector;
-
-/**
-  * This class implements a buffer that is used by a processor in each split
-  * to keep and partition local elements.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 10/29/98
-  */
-class PartitionBuffer {
-  private Vector left  = new Vector();  // elements less and equal to pivot
-  private Vector right = new Vector();  // elements greater than pivot
-  private int    pivot;                 // element used to partition elements
-
-  PartitionBuffer(int pivot) {
-    this.pivot = pivot;
-  }
-
-  // Add element to buffer.
-  synchronized void add(int e) {
-    if (e <= pivot) {
-      left.addElement(new Integer(e));
-    }
-    else {
-      right.addElement(new Integer(e));
-    }
-  }
-
-  // Add elements to buffer.
-  synchronized void add(int data[]) {
-    for (int i = 0; i < data.length; i++) {
-      add(data[i]);
-    }
-  }
-
-  // Pop and return elements less and equal to pivot.
-  synchronized int[] popLeft() {
-    int data[] = new int[left.size()];
-
-    for (int i = 0; i < data.length; i++) {
-      data[i] = ((Integer)left.elementAt(i)).intValue();
-    }
-
-    left.removeAllElements();
-    return data;  
-  }
-
-  // Pop and return elements greater than pivot.
-  synchronized int[] popRight() {
-    int data[] = new int[right.size()];
-
-    for (int i = 0; i < data.length; i++) {
-      data[i] = ((Integer)right.elementAt(i)).intValue();
-    }
-
-    right.removeAllElements();
-    return data;
-  }
-
-  // Return all elements.
-  synchronized int[] get() {
-    int data[] = new int[left.size() + right.size()];
-    int i;
-
-    // join elements
-    for (i = 0; i < left.size(); i++) {
-      data[i] = ((Integer)left.elementAt(i)).intValue();
-    }
-    for (int j = 0; j < right.size(); j++) {
-      data[j + i] = ((Integer)right.elementAt(j)).intValue();
-    }
-
-    return data;
-  } 
-
-  // Return sorted elements.
-  synchronized int[] getSorted() {
-    int data[] = get();
-
-    bsort(data);
-    return data;
-  }
-
-  // Sort a given sequence using bubble sort.
-  private static void bsort(int data[]) {
-    boolean flag = true;
-
-    while (flag) {
-      flag = false;
-
-      for (int i = 0; i < data.length - 1; i++) {
-        if (data[i] > data[i + 1]) {
-          int tmp     = data[i];
-          data[i]     = data[i + 1];
-          data[i + 1] = tmp;
-          flag = true;
-        }
-      }
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.IntList;
+import com.designamus.jim.util.IntView;
+import com.designamus.jim.util.LocalSorter;
+import com.designamus.jim.util.LocalSorters;
+
+/**
+  * This class implements a buffer that is used by a processor in each split
+  * to keep and partition local elements. It's only used by the thread of its
+  * processor, elements from other processors arrive through channels, so it
+  * isn't synchronized.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.5 10/18/26
+  */
+class PartitionBuffer {
+  private IntList left  = new IntList();  // elements less and equal to pivot
+  private IntList right = new IntList();  // elements greater than pivot
+  private int     pivot;                  // element used to partition elements
+  private int     scratch[];              // work area used to find the median
+
+  // used to sort elements, it's chosen for each sort if null
+  private LocalSorter sorter;
+
+  // view of all elements handed to listeners
+  private final IntView view = new View();
+
+  // the last snapshot taken, frozen before elements change
+  private BufferSnapshot snapshot;
+
+  PartitionBuffer(int pivot) {
+    this(pivot, null);
+  }
+
+  PartitionBuffer(int pivot, LocalSorter sorter) {
+    this.pivot  = pivot;
+    this.sorter = sorter;
+  }
+
+  // Return the number of elements.
+  int size() {
+    return left.size() + right.size();
+  }
+
+  // Return the element used to partition elements.
+  int getPivot() {
+    return pivot;
+  }
+
+  /*
+  Change the pivot and partition elements again. Only elements of one side
+  have to be examined, the other side holds elements that are on the same
+  side of both pivots.
+  */
+  void setPivot(int pivot) {
+    changing();
+    if (pivot > this.pivot) {
+      move(right, left, pivot, false);
+    }
+    else if (pivot < this.pivot) {
+      move(left, right, pivot, true);
+    }
+    this.pivot = pivot;
+  }
+
+  // Move elements greater (or less and equal) than pivot from src to dst.
+  private static void move(IntList src, IntList dst, int pivot,
+                           boolean greater) {
+    int kept = 0;
+
+    for (int i = 0; i < src.size(); i++) {
+      int e = src.get(i);
+      if ((e > pivot) == greater) {
+        dst.add(e);
+      }
+      else {
+        src.set(kept++, e);
+      }
+    }
+    src.truncate(kept);
+  }
+
+  /*
+  Return the lower median of elements, or 0 if the buffer is empty. Elements
+  are copied to a work area, so the buffer isn't changed.
+  */
+  int median() {
+    int n = left.size() + right.size();
+    if (n == 0) {
+      return 0;
+    }
+
+    if (scratch == null || scratch.length < n) {
+      scratch = new int[n];
+    }
+    left.copyTo(scratch, 0);
+    right.copyTo(scratch, left.size());
+
+    return select(scratch, 0, n, (n - 1) / 2);
+  }
+
+  /*
+  Return kth smallest element of a range of an array. It's a quick select with
+  a median of three pivot and three way partitioning, so runs of equal
+  elements don't slow it down.
+  */
+  private static int select(int a[], int from, int to, int k) {
+    while (to - from > 1) {
+      int x = a[from];
+      int y = a[(from + to) >>> 1];
+      int z = a[to - 1];
+      int p = Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+
+      // [from, lt) < p, [lt, i) == p, [gt, to) > p
+      int lt = from;
+      int gt = to;
+      int i  = from;
+      while (i < gt) {
+        int e = a[i];
+        if (e < p) {
+          a[i++] = a[lt];
+          a[lt++] = e;
+        }
+        else if (e > p) {
+          a[i] = a[--gt];
+          a[gt] = e;
+        }
+        else {
+          i++;
+        }
+      }
+
+      if (k < lt) {
+        to = lt;
+      }
+      else if (k >= gt) {
+        from = gt;
+      }
+      else {
+        return p;
+      }
+    }
+
+    return a[from];
+  }
+
+  // Add element to buffer.
+  void add(int e) {
+    changing();
+    if (e <= pivot) {
+      left.add(e);
+    }
+    else {
+      right.add(e);
+    }
+  }
+
+  // Add a range of elements to buffer.
+  void add(int data[], int off, int len) {
+    changing();
+    for (int i = off; i < off + len; i++) {
+      if (data[i] <= pivot) {
+        left.add(data[i]);
+      }
+      else {
+        right.add(data[i]);
+      }
+    }
+  }
+
+  // Add elements to buffer.
+  void add(int data[]) {
+    add(data, 0, data.length);
+  }
+
+  // Pop and return elements less and equal to pivot.
+  int[] popLeft() {
+    changing();
+    return left.pop();
+  }
+
+  // Pop and return elements greater than pivot.
+  int[] popRight() {
+    changing();
+    return right.pop();
+  }
+
+  // Return all elements.
+  int[] get() {
+    int data[] = new int[left.size() + right.size()];
+
+    // join elements
+    left.copyTo(data, 0);
+    right.copyTo(data, left.size());
+
+    return data;
+  } 
+
+  /*
+  Return a read-only view of all elements. Nothing is copied until the view is
+  read, and it follows subsequent changes of the buffer, so a reader that
+  keeps elements must call toArray() or take a snapshot.
+  */
+  IntView view() {
+    return view;
+  }
+
+  /*
+  Return a snapshot of all elements. It's copied only when the buffer is
+  about to change, and snapshots taken in between share the copy.
+  */
+  IntView snapshot() {
+    if (snapshot == null) {
+      snapshot = new BufferSnapshot(view);
+    }
+    return snapshot;
+  }
+
+  // Copy elements for the snapshot before they change.
+  private void changing() {
+    if (snapshot != null) {
+      snapshot.freeze();
+      snapshot = null;
+    }
+  }
+
+  // Return sorted elements.
+  int[] getSorted() {
+    int data[] = get();
+
+    // choose the sorter if it hasn't been set
+    LocalSorter s = sorter;
+    if (s == null) {
+      s = LocalSorters.select(data, 0, data.length);
+    }
+
+    s.sort(data, 0, data.length);
+    return data;
+  }
+
+  // View of elements less and equal to pivot followed by the greater ones.
+  private class View implements IntView {
+    public int length() {
+      return left.size() + right.size();
+    }
+
+    public int get(int index) {
+      if (index >= 0 && index < left.size()) {
+        return left.get(index);
+      }
+      if (index >= left.size() && index < length()) {
+        return right.get(index - left.size());
+      }
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public void copyTo(int dst[], int off) {
+      left.copyTo(dst, off);
+      right.copyTo(dst, off + left.size());
+    }
+
+    public int[] toArray() {
+      return PartitionBuffer.this.get();
+    }
+
+    public IntView snapshot() {
+      return PartitionBuffer.this.snapshot();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Barrier;
+import java.io.PrintWriter;
+
+/**
+  * This class records where processors of an engine spend time in each
+  * phase: computing, blocked in barriers and in listener callbacks that
+  * follow the barrier ending the phase. Storage for a given number of phases
+  * is allocated up front and every processor writes only its own record, so
+  * recording takes two reads of the clock per barrier and one per phase.
+  * Records are read when all processors threads have finished.
+  * <p>
+  * Records are kept in one array, a cache line apart, so processors that
+  * write their records at every barrier don't share cache lines and don't
+  * slow each other down while waits are measured.
+  * <p>
+  * Times are measured from the moment the recorder is created, so it should
+  * be created right before the engine. Engines that aren't measured get NONE,
+  * which records nothing.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class PhaseMetrics {
+  // shared instance that records nothing
+  static final PhaseMetrics NONE = new PhaseMetrics(0, 0) {
+    Barrier wrap(Barrier barrier) {
+      return barrier;
+    }
+
+    void phaseDone(int id) {
+    }
+  };
+
+  // header of rows written by writeCsv()
+  static final String CSV_HEADER =
+    "run,proc,phase,end_ns,compute_ns,wait_ns,callback_ns";
+
+  // longs in a cache line, records are padded to whole lines
+  private static final int LINE = 8;
+
+  /*
+  Offsets of times of a processor within its record, the last three are
+  followed by a slot for each phase.
+  */
+  private static final int PHASES = 0;  // number of phases completed
+  private static final int EXIT   = 1;  // time the last barrier was left at
+  private static final int END    = 2;  // time each phase was completed at
+
+  private final long start;     // time the recorder was created at
+  private final int  procNo;    // number of processors
+  private final int  capacity;  // number of phases recorded
+  private final int  stride;    // distance between records
+
+  /*
+  Records of processors. A record holds the number of phases completed, the
+  time the last barrier was left at and, for each phase, the time it was
+  completed at, the time blocked in barriers and the time of callbacks after
+  the barrier ending it. A line of padding goes before each record and after
+  the last one, since the array itself needn't start at a cache line.
+  */
+  private final long records[];
+
+  // Phases beyond a given capacity aren't recorded.
+  PhaseMetrics(int procNo, int capacity) {
+    this.procNo   = procNo;
+    this.capacity = capacity;
+    stride        = (END + 3 * capacity + LINE - 1) / LINE * LINE + LINE;
+    records       = new long[procNo * stride + LINE];
+    start         = System.nanoTime();
+  }
+
+  // Return the index of the record of a given processor.
+  private int recordOf(int id) {
+    return LINE + id * stride;
+  }
+
+  // Return the index of the time a processor completed a phase at.
+  private int endOf(int r, int phase) {
+    return r + END + phase;
+  }
+
+  // Return the index of the time a processor was blocked in a phase.
+  private int waitOf(int r, int phase) {
+    return r + END + capacity + phase;
+  }
+
+  // Return the index of the time of callbacks of a processor in a phase.
+  private int notifyOf(int r, int phase) {
+    return r + END + 2 * capacity + phase;
+  }
+
+  // Return a barrier that times joins of processors to a given one.
+  Barrier wrap(final Barrier barrier) {
+    return new Barrier() {
+      public void join(int id) {
+        int  r = recordOf(id);
+        long t = System.nanoTime();
+
+        barrier.join(id);
+        long exit = System.nanoTime();
+        int  k    = (int)records[r + PHASES];
+
+        records[r + EXIT] = exit;
+        if (k < capacity) {
+          records[waitOf(r, k)] += exit - t;
+        }
+      }
+    };
+  }
+
+  /*
+  Called by a processor when it has completed a phase, after the listener
+  has been notified.
+  */
+  void phaseDone(int id) {
+    int  r = recordOf(id);
+    long t = System.nanoTime();
+    int  k = (int)records[r + PHASES];
+
+    if (k < capacity) {
+      records[endOf(r, k)]    = t;
+      records[notifyOf(r, k)] = t - records[r + EXIT];
+      records[r + PHASES]     = k + 1;
+    }
+  }
+
+  int getProcNo() {
+    return procNo;
+  }
+
+  // Return the number of phases a processor has completed.
+  int getPhases(int id) {
+    return (int)records[recordOf(id) + PHASES];
+  }
+
+  // Return the time a processor completed a phase at, since creation.
+  long getEnd(int id, int phase) {
+    return records[endOf(recordOf(id), phase - 1)] - start;
+  }
+
+  // Return the time a processor was blocked in barriers in a phase.
+  long getWait(int id, int phase) {
+    return records[waitOf(recordOf(id), phase - 1)];
+  }
+
+  // Return the time of listener callbacks after the barrier of a phase.
+  long getCallback(int id, int phase) {
+    return records[notifyOf(recordOf(id), phase - 1)];
+  }
+
+  // Return the time a processor computed (and sent messages) in a phase.
+  long getCompute(int id, int phase) {
+    long begin = (phase > 1) ? getEnd(id, phase - 1) : 0;
+    return getEnd(id, phase) - begin - getWait(id, phase) -
+           getCallback(id, phase);
+  }
+
+  // Write a row for each phase of each processor, without the header.
+  void writeCsv(PrintWriter out, int run) {
+    for (int i = 0; i < procNo; i++) {
+      for (int k = 1; k <= getPhases(i); k++) {
+        out.println(run + "," + i + "," + k + "," + getEnd(i, k) + "," +
+                    getCompute(i, k) + "," + getWait(i, k) + "," +
+                    getCallback(i, k));
+      }
+    }
+  }
+
+  // Write an array with an object for each phase of each processor.
+  void writeJson(PrintWriter out) {
+    out.print("[");
+    String sep = "";
+    for (int i = 0; i < procNo; i++) {
+      for (int k = 1; k <= getPhases(i); k++) {
+        out.print(sep + "\n    {\"proc\": " + i + ", \"phase\": " + k +
+                  ", \"end_ns\": " + getEnd(i, k) + ", \"compute_ns\": " +
+                  getCompute(i, k) + ", \"wait_ns\": " + getWait(i, k) +
+                  ", \"callback_ns\": " + getCallback(i, k) + "}");
+        sep = ",";
+      }
+    }
+    out.print("\n  ]");
+  }
+}
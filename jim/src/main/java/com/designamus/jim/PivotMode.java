@@ -0,0 +1,35 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This enumeration lists ways the quick sort dialog chooses pivots.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+enum PivotMode {
+  FIRST,    // the first element of the sequence, used by all subcubes
+  LAST,     // the last element of the sequence, used by all subcubes
+  RANDOM,   // a random element of the sequence, used by all subcubes
+  MEDIAN;   // each subcube chooses its own before every split
+
+  // Return the pivot mode with a given name (case insensitive).
+  static PivotMode forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+}
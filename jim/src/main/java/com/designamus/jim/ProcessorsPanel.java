@@ -1,167 +1,601 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-import java.awt.Canvas;
-import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
-import java.awt.Insets;
-import java.util.Vector;
-
-import javax.swing.JLabel;
-import javax.swing.JPanel;
-
-/**
-  * This class is a panel that holds components that visualize processors.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.1 11/02/98
-  */
-class ProcessorsPanel extends JPanel {
-  private GridBagLayout      gb = new GridBagLayout();
-  private GridBagConstraints c  = new GridBagConstraints();
-
-  private Indicator[] inds;      // components that visualize processors
-  private int         maxValue;  // the largest element among all processors
-  private double      scaleY;    // scale factor
-
-  /*
-  This class implements a component that is used to visualize a buffer that
-  holds elements assigned for a processor.
-  */
-  private class Indicator extends Canvas {
-    private int    width, height;         // this component drawable size 
-    private Vector left  = new Vector();  // elements less and equal to pivot
-    private Vector right = new Vector();  // elements greater than pivot
-    private int    pivot;                 // element used to partition elements
-
-    Indicator(int width, int height) {
-      this.width  = width;
-      this.height = height;
-
-      setSize(width + 2, height + 2);
-    }
-
-    synchronized public void paint(Graphics g) {
-      // draw 3D filled rectangle
-      this.setBackground(Color.black);
-      g.setColor(Color.gray);
-      g.drawLine(0, 0, 0, height + 1);
-      g.drawLine(0, 0, width, 0);
-      g.setColor(Color.white);
-      g.drawLine(width + 1, 0, width + 1, height + 1);
-      g.drawLine(1, height + 1, width + 1, height + 1 );
-
-      int i = 0;
-
-      // visualize elements less and equal to pivot
-      g.setColor(Color.red);
-      for (i = 0; i < left.size(); i++) {
-        int amp = (int)(((Integer)left.elementAt(i)).intValue() * scaleY);
-        if (amp > 0) { 
-          g.drawLine(i + 1, height, i + 1, height - amp + 1);
-        }
-      }
-
-      // visualize elements greater than pivot
-      g.setColor(Color.blue);
-      for (int j = 0; j < right.size(); j++) {
-        int amp = (int)(((Integer)right.elementAt(j)).intValue() * scaleY);
-        if (amp > 0) { 
-          g.drawLine(j + i + 1, height, j + i + 1, height - amp + 1);
-        }
-      }
-    }
-
-    // Clear buffers.
-    synchronized void clear() {
-      maxValue = 0; 
-      left.removeAllElements();
-      right.removeAllElements();
-      repaint();
-    }
-
-    // Partition a given sequence into buffers according to pivot.
-    synchronized void setData(int data[], int pivot) {
-      this.pivot = pivot;
- 
-      left.removeAllElements();
-      right.removeAllElements();
-
-      for (int i = 0; i < data.length; i++) {
-        if (data[i] <= pivot) {
-          left.addElement(new Integer(data[i]));
-        }
-        else {
-          right.addElement(new Integer(data[i]));
-        }
-
-        if (data[i] > maxValue) {
-          maxValue = data[i];
-          scaleY   = (double)height / maxValue;
-        }
-      }
-
-      // update all indicators to preserve proportions
-      ProcessorsPanel.this.update();
-    }
-  }
-
-  ProcessorsPanel(int procNo, int procWidth, int procHeight) {
-    super();
-    setLayout(gb);
-
-    inds = new Indicator[procNo];
-
-    for (int i = 0; i < procNo; i++) {
-      int bottom = ((i == (procNo - 1)) ? 0 : 10);
-
-      JLabel label = new JLabel("P" + i + ":");
-      c.gridx      = 0; 
-      c.gridy      = i;
-      c.anchor     = c.EAST;
-      c.insets     = new Insets(0, 0, bottom, 0);
-      gb.setConstraints(label, c);
-      add(label);
-      inds[i]      = new Indicator(procWidth, procHeight);
-      c.gridx      = 1; 
-      c.gridy      = i;
-      c.anchor     = c.WEST;
-      c.insets     = new Insets(0, 5, bottom, 0);
-      gb.setConstraints(inds[i], c);
-      add(inds[i]);
-    }
-  }
-
-  void clear() {
-    for (int i = 0; i < inds.length; i++) {
-      inds[i].clear();
-    }
-  } 
-
-  void setData(int procNo, int data[], int pivot) {
-    inds[procNo].setData(data, pivot);
-  }
-
-  private void update() {
-    for (int i = 0; i < inds.length; i++) {
-      inds[i].repaint();
-    }
-  }
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.GridLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.Scrollable;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+
+/**
+  * This class is a panel that visualizes processors. A few processors are
+  * shown in detail, each with a bar for every element; hundreds of them are
+  * shown as a heatmap with a cell for each processor colored by its load or
+  * by words it has received or sent. Both views are laid out as a grid of
+  * cells in a single scrolled component that paints only the visible cells,
+  * and a few lines below it summarize all processors.
+  * <p>
+  * Elements of a processor are reduced to the smallest and the largest
+  * element of each pixel column when they are set, so the cost of painting
+  * doesn't depend on the number of elements. Columns are drawn into an
+  * offscreen image when the processor is painted, and changes made within a
+  * frame are painted together at its end, only for processors that have
+  * changed. The panel is used only on the event dispatch thread.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 2.2 10/18/26
+  */
+class ProcessorsPanel extends JPanel {
+  private static final int FRAME      = 20;  // time between redraws in ms
+  private static final int ROWS       = 8;   // processors shown in detail
+  private static final int DETAIL_MAX = 64;  // the most shown in detail
+  private static final int GAP        = 10;  // space between indicators
+  private static final int CELL       = 12;  // side of a heatmap cell
+
+  // states of processors
+  private static final byte IDLE     = 0;  // hasn't got elements yet
+  private static final byte ACTIVE   = 1;
+  private static final byte FINISHED = 2;
+
+  // views, the first one shows elements, the others are heatmaps
+  private static final int    ELEMENTS  = 0;
+  private static final int    LOAD      = 1;
+  private static final int    WORDS_IN  = 2;
+  private static final int    WORDS_OUT = 3;
+  private static final String VIEWS[]   = { "Elements", "Load", "Words in",
+                                            "Words out" };
+
+  // colors of indicator images: background, then bar and range of elements
+  // less and equal to pivot and of the greater ones
+  private static final IndexColorModel PALETTE = palette(Color.black,
+      Color.red, Color.red.darker(), Color.blue, Color.blue.darker());
+
+  // colors of heatmap cells from the lowest to the highest value
+  private static final Color HEAT[] = heat(64);
+
+  private int width, height;  // indicator drawable size
+  private int labelWidth;     // space for labels of processors
+
+  private int    procNo;
+  private int    load[];         // number of elements of processors
+  private byte   state[];        // states of processors
+  private long   in[], out[];    // words received and sent by processors
+  private Columns cols[];        // elements reduced to columns, or null
+  private BufferedImage images[];  // columns drawn, allocated when painted
+  private boolean stale[];       // set if the image is out of date
+
+  // processors changed during the current frame
+  private boolean dirty[];
+  private int     changed[];
+  private int     changedNo;
+
+  private int     maxValue;  // the largest element among all processors
+  private double  scaleY;    // scale factor
+  private boolean rescaled;  // set if all indicators have to be redrawn
+  private long    maxHeat;   // the largest value shown by the heatmap
+
+  private Grid              grid = new Grid();
+  private JComboBox<String> cbView;
+  private JLabel            lState, lLoad, lWords;  // summary of processors
+
+  // fires once at the end of the frame in which processors were changed
+  private Timer frame = new Timer(FRAME, new ActionListener() {
+    public void actionPerformed(ActionEvent e) {
+      redraw();
+    }
+  });
+
+  // Elements of a processor reduced to pixel columns.
+  private static class Columns {
+    int lo[], hi[];  // the smallest and largest element of columns
+    int n;           // number of columns in use
+    int left;        // columns that start with elements <= pivot
+
+    Columns(int width) {
+      lo = new int[width];
+      hi = new int[width];
+    }
+  }
+
+  /*
+  This class implements the component that lays out processors in a grid and
+  paints the cells that intersect the clip. In the detail view the grid has a
+  single column of labeled indicators, a heatmap has as many columns as fit
+  in the width of the viewport.
+  */
+  private class Grid extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    Grid() {
+      setFont(UIManager.getFont("Label.font"));
+      setToolTipText("");
+    }
+
+    boolean isDetail() {
+      return cbView.getSelectedIndex() == ELEMENTS;
+    }
+
+    int cellWidth() {
+      return isDetail() ? labelWidth + 5 + width + 2 : CELL;
+    }
+
+    int cellHeight() {
+      return isDetail() ? height + 2 + GAP : CELL;
+    }
+
+    // The viewport is laid out first, so its width is used for the layout.
+    int columns() {
+      int w = (getParent() != null) ? getParent().getWidth() : getWidth();
+      return isDetail() ? 1 : Math.max(1, w / CELL);
+    }
+
+    // Return the processor at a given point, or -1.
+    int processorAt(Point p) {
+      int c = columns();
+      int x = p.x / cellWidth();
+      int i = (p.y / cellHeight()) * c + x;
+      return (x < c && i < procNo) ? i : -1;
+    }
+
+    // Return the bounds of the cell of a given processor.
+    Rectangle cellBounds(int i) {
+      int c = columns();
+      return new Rectangle((i % c) * cellWidth(), (i / c) * cellHeight(),
+                           cellWidth(), cellHeight());
+    }
+
+    public Dimension getPreferredSize() {
+      int rows = (procNo + columns() - 1) / columns();
+      return new Dimension(labelWidth + 5 + width + 2, rows * cellHeight());
+    }
+
+    protected void paintComponent(Graphics g) {
+      Rectangle clip = g.getClipBounds();
+      int c = columns(), w = cellWidth(), h = cellHeight();
+
+      // only rows that intersect the clip are visited
+      int first = (clip.y / h) * c;
+      int last  = Math.min(procNo, ((clip.y + clip.height - 1) / h + 1) * c);
+      for (int i = first; i < last; i++) {
+        int x = (i % c) * w, y = (i / c) * h;
+        if (x < clip.x + clip.width && x + w > clip.x) {
+          if (isDetail()) {
+            paintIndicator(g, i, x, y);
+          }
+          else {
+            paintCell(g, i, x, y);
+          }
+        }
+      }
+    }
+
+    // Paint the label and the indicator of a given processor.
+    private void paintIndicator(Graphics g, int i, int x, int y) {
+      FontMetrics fm = g.getFontMetrics();
+      String label   = "P" + i + ":";
+      g.setColor(getForeground());
+      g.drawString(label, x + labelWidth - fm.stringWidth(label),
+                   y + (height + 2 + fm.getAscent()) / 2);
+
+      // draw 3D frame
+      x += labelWidth + 5;
+      g.setColor(Color.gray);
+      g.drawLine(x, y, x, y + height + 1);
+      g.drawLine(x, y, x + width, y);
+      g.setColor(Color.white);
+      g.drawLine(x + width + 1, y, x + width + 1, y + height + 1);
+      g.drawLine(x + 1, y + height + 1, x + width + 1, y + height + 1);
+
+      if (cols[i] == null) {
+        g.setColor(Color.black);
+        g.fillRect(x + 1, y + 1, width, height);
+      }
+      else {
+        g.drawImage(image(i), x + 1, y + 1, null);
+      }
+    }
+
+    // Paint the heatmap cell of a given processor.
+    private void paintCell(Graphics g, int i, int x, int y) {
+      if (state[i] == IDLE) {
+        g.setColor(Color.darkGray);
+      }
+      else {
+        long v = heatOf(i);
+        g.setColor(HEAT[(maxHeat > 0) ? (int)(v * (HEAT.length - 1) /
+                                               maxHeat) : 0]);
+      }
+      g.fillRect(x, y, CELL - 1, CELL - 1);
+
+      if (state[i] == FINISHED) {
+        g.setColor(Color.white);
+        g.drawRect(x, y, CELL - 2, CELL - 2);
+      }
+    }
+
+    public String getToolTipText(MouseEvent e) {
+      int i = processorAt(e.getPoint());
+      if (i < 0) {
+        return null;
+      }
+
+      String s = (state[i] == IDLE) ? "idle" :
+                 (state[i] == ACTIVE) ? "active" : "finished";
+      return "P" + i + ": " + s + ", " + load[i] + " elements, " +
+             in[i] + " words in, " + out[i] + " words out";
+    }
+
+    /*
+    Scrollable implementation. A heatmap is as wide as the viewport, so its
+    columns follow the width of the panel.
+    */
+
+    public Dimension getPreferredScrollableViewportSize() {
+      return new Dimension(labelWidth + 5 + width + 2,
+                           ROWS * (height + 2 + GAP) - GAP);
+    }
+
+    public int getScrollableUnitIncrement(Rectangle r, int orient, int dir) {
+      return cellHeight();
+    }
+
+    public int getScrollableBlockIncrement(Rectangle r, int orient, int dir) {
+      return Math.max(cellHeight(), r.height - cellHeight());
+    }
+
+    public boolean getScrollableTracksViewportWidth() {
+      return true;
+    }
+
+    public boolean getScrollableTracksViewportHeight() {
+      return false;
+    }
+  }
+
+  ProcessorsPanel(int procNo, int procWidth, int procHeight) {
+    super(new BorderLayout(0, 5));
+    width  = procWidth;
+    height = procHeight;
+    frame.setRepeats(false);
+
+    labelWidth = grid.getFontMetrics(grid.getFont()).stringWidth("P0000:");
+
+    cbView = new JComboBox<String>(VIEWS);
+    cbView.addActionListener(new ActionListener() {
+      public void actionPerformed(ActionEvent e) {
+        maxHeat = maxHeat();
+        grid.revalidate();
+        grid.repaint();
+      }
+    });
+    JPanel top = new JPanel(new BorderLayout(5, 0));
+    JLabel lView = new JLabel("View:");
+    lView.setDisplayedMnemonic('V');
+    lView.setLabelFor(cbView);
+    top.add(lView, BorderLayout.WEST);
+    top.add(cbView, BorderLayout.CENTER);
+    add(top, BorderLayout.NORTH);
+
+    JScrollPane sp = new JScrollPane(grid,
+                                     JScrollPane.VERTICAL_SCROLLBAR_ALWAYS,
+                                     JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+    sp.setBorder(BorderFactory.createEmptyBorder());
+    add(sp, BorderLayout.CENTER);
+
+    JPanel summary = new JPanel(new GridLayout(3, 1));
+    lState = new JLabel(" ");
+    lLoad  = new JLabel(" ");
+    lWords = new JLabel(" ");
+    summary.add(lState);
+    summary.add(lLoad);
+    summary.add(lWords);
+    add(summary, BorderLayout.SOUTH);
+
+    setProcessors(procNo);
+  }
+
+  // Set the number of processors shown and clear them.
+  void setProcessors(int procNo) {
+    if (procNo != this.procNo) {
+      this.procNo = procNo;
+      load    = new int[procNo];
+      state   = new byte[procNo];
+      in      = new long[procNo];
+      out     = new long[procNo];
+      cols    = new Columns[procNo];
+      images  = new BufferedImage[procNo];
+      stale   = new boolean[procNo];
+      dirty   = new boolean[procNo];
+      changed = new int[procNo];
+
+      // choose the view that fits the number of processors
+      cbView.setSelectedIndex((procNo > DETAIL_MAX) ? LOAD : ELEMENTS);
+    }
+    clear();
+    grid.revalidate();
+  }
+
+  void clear() {
+    Arrays.fill(load, 0);
+    Arrays.fill(state, IDLE);
+    Arrays.fill(in, 0);
+    Arrays.fill(out, 0);
+    Arrays.fill(cols, null);
+    Arrays.fill(dirty, false);
+    changedNo = 0;
+    maxValue  = 0;
+    scaleY    = 0;
+    maxHeat   = 0;
+
+    grid.repaint();
+    summarize();
+  } 
+
+  // Set elements of a processor that aren't partitioned.
+  void setData(int id, int data[]) {
+    setData(id, data, false, 0);
+  }
+
+  // Set elements of a processor partitioned according to pivot.
+  void setData(int id, int data[], int pivot) {
+    setData(id, data, true, pivot);
+  }
+
+  /*
+  Set elements of a processor and reduce them to columns. The partition isn't
+  stored, the position of each element in it follows from the number of
+  elements less and equal to pivot.
+  */
+  private void setData(int id, int data[], boolean partitioned, int pivot) {
+    int n  = data.length;
+    int nl = 0;
+    for (int i = 0; partitioned && i < n; i++) {
+      if (data[i] <= pivot) {
+        nl++;
+      }
+    }
+
+    Columns c = cols[id];
+    if (c == null) {
+      c = cols[id] = new Columns(width);
+    }
+    c.n    = Math.min(n, width);
+    c.left = (nl > 0) ? columnOf(nl - 1, n) + 1 : 0;
+    for (int x = 0; x < c.n; x++) {
+      c.lo[x] = Integer.MAX_VALUE;
+      c.hi[x] = Integer.MIN_VALUE;
+    }
+
+    int l = 0, r = nl;  // next positions of elements in the partition
+    for (int i = 0; i < n; i++) {
+      int e = data[i];
+      int x = columnOf((partitioned && e <= pivot) ? l++ : r++, n);
+
+      if (e < c.lo[x]) {
+        c.lo[x] = e;
+      }
+      if (e > c.hi[x]) {
+        c.hi[x] = e;
+      }
+
+      if (e > maxValue) {
+        maxValue = e;
+        scaleY   = (double)height / maxValue;
+        rescaled = true;
+      }
+    }
+
+    load[id]  = n;
+    state[id] = (state[id] == FINISHED) ? FINISHED : ACTIVE;
+    stale[id] = true;
+    changed(id);
+  }
+
+  // Record words sent by one processor to another.
+  void transferred(int from, int to, int words) {
+    out[from] += words;
+    in[to]    += words;
+    changed(from);
+    changed(to);
+  }
+
+  // Mark a processor finished.
+  void finished(int id) {
+    state[id] = FINISHED;
+    changed(id);
+  }
+
+  // Mark all processors finished.
+  void finished() {
+    for (int i = 0; i < procNo; i++) {
+      finished(i);
+    }
+  }
+
+  // Return the column of an element at a given position out of n.
+  private int columnOf(int pos, int n) {
+    return (n > width) ? (int)((long)pos * width / n) : pos;
+  }
+
+  // Remember a changed processor and schedule a redraw.
+  private void changed(int id) {
+    if (!dirty[id]) {
+      dirty[id] = true;
+      changed[changedNo++] = id;
+    }
+    if (!frame.isRunning()) {
+      frame.start();
+    }
+  }
+
+  /*
+  Repaint processors changed during the last frame. All of them are repainted
+  if the scale of either view has changed, to preserve proportions. Cells
+  that aren't visible are left out by the repaint manager.
+  */
+  private void redraw() {
+    long max = maxHeat();
+    boolean all = rescaled || (!grid.isDetail() && max != maxHeat);
+    maxHeat = max;
+
+    if (rescaled) {
+      Arrays.fill(stale, true);
+      rescaled = false;
+    }
+    for (int k = 0; k < changedNo; k++) {
+      int i = changed[k];
+      dirty[i] = false;
+      if (!all) {
+        grid.repaint(grid.cellBounds(i));
+      }
+    }
+    changedNo = 0;
+
+    if (all) {
+      grid.repaint();
+    }
+    summarize();
+  }
+
+  // Return the image of a given processor, draw it if it's out of date.
+  private BufferedImage image(int id) {
+    if (images[id] == null) {
+      images[id] = new BufferedImage(width, height,
+                                     BufferedImage.TYPE_BYTE_INDEXED, PALETTE);
+      stale[id]  = true;
+    }
+    if (stale[id]) {
+      render(id);
+      stale[id] = false;
+    }
+    return images[id];
+  }
+
+  /*
+  Draw columns of a processor into its image. Each column is a bar up to the
+  smallest element, the range of elements up to the largest one is darker.
+  */
+  private void render(int id) {
+    Columns c    = cols[id];
+    byte    pix[] = ((DataBufferByte)images[id].getRaster().getDataBuffer())
+                    .getData();
+
+    Arrays.fill(pix, (byte)0);
+    for (int x = 0; x < c.n; x++) {
+      byte bar   = (byte)((x < c.left) ? 1 : 3);
+      byte range = (byte)(bar + 1);
+
+      int max = Math.max(0, (int)(c.hi[x] * scaleY));
+      int min = Math.max(0, (int)(c.lo[x] * scaleY));
+      for (int y = height - max; y < height - min; y++) {
+        pix[y * width + x] = range;
+      }
+      for (int y = height - min; y < height; y++) {
+        pix[y * width + x] = bar;
+      }
+    }
+  }
+
+  // Return the value of a processor shown by the heatmap.
+  private long heatOf(int id) {
+    switch (cbView.getSelectedIndex()) {
+      case WORDS_IN:
+        return in[id];
+      case WORDS_OUT:
+        return out[id];
+      default:
+        return load[id];
+    }
+  }
+
+  // Return the largest value shown by the heatmap.
+  private long maxHeat() {
+    long max = 0;
+    for (int i = 0; i < procNo; i++) {
+      max = Math.max(max, heatOf(i));
+    }
+    return max;
+  }
+
+  // Show the state of all processors in the summary.
+  private void summarize() {
+    int  active = 0, done = 0, min = Integer.MAX_VALUE, max = 0;
+    long total  = 0, words = 0;
+    for (int i = 0; i < procNo; i++) {
+      if (state[i] == ACTIVE) {
+        active++;
+      }
+      else if (state[i] == FINISHED) {
+        done++;
+      }
+      min    = Math.min(min, load[i]);
+      max    = Math.max(max, load[i]);
+      total += load[i];
+      words += out[i];
+    }
+
+    lState.setText("Active " + active + ", finished " + done + " of " +
+                   procNo);
+    lLoad.setText("Load (min/avg/max): " + min + "/" +
+                  (total / Math.max(procNo, 1)) + "/" + max);
+    lWords.setText("Words sent: " + words);
+  }
+
+  // Create a color model with given colors.
+  private static IndexColorModel palette(Color... colors) {
+    byte r[] = new byte[colors.length];
+    byte g[] = new byte[colors.length];
+    byte b[] = new byte[colors.length];
+    for (int i = 0; i < colors.length; i++) {
+      r[i] = (byte)colors[i].getRed();
+      g[i] = (byte)colors[i].getGreen();
+      b[i] = (byte)colors[i].getBlue();
+    }
+    return new IndexColorModel(8, colors.length, r, g, b);
+  }
+
+  // Create a scale of colors from black through red to yellow.
+  private static Color[] heat(int n) {
+    Color scale[] = new Color[n];
+    for (int i = 0; i < n; i++) {
+      float v = (float)i / (n - 1);
+      scale[i] = new Color(Math.min(1f, 2 * v), Math.max(0f, 2 * v - 1), 0f);
+    }
+    return scale;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This class implements a ring topology. Processor i is connected to
+  * processors i - 1 and i + 1 (modulo the number of processors) and messages
+  * take the shorter way round.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class Ring implements Topology {
+  private int procNo;  // number of processors
+
+  Ring(int procNo) {
+    if (procNo < 1) {
+      throw new IllegalArgumentException("invalid size: " + procNo);
+    }
+    this.procNo = procNo;
+  }
+
+  public int size() {
+    return procNo;
+  }
+
+  public int[] neighbours(int id) {
+    if (procNo == 1) {
+      return new int[0];
+    }
+    if (procNo == 2) {
+      return new int[] { 1 - id };
+    }
+    return new int[] { (id + procNo - 1) % procNo, (id + 1) % procNo };
+  }
+
+  public int nextHop(int from, int to) {
+    int delta = (to - from + procNo) % procNo;
+
+    if (delta == 0) {
+      return from;
+    }
+    // go up if it's shorter, on a tie go down
+    return (delta < procNo - delta) ? (from + 1) % procNo :
+                                      (from + procNo - 1) % procNo;
+  }
+
+  public int distance(int from, int to) {
+    int delta = (to - from + procNo) % procNo;
+
+    return Math.min(delta, procNo - delta);
+  }
+
+  public int diameter() {
+    return procNo / 2;
+  }
+
+  public int eccentricity(int id) {
+    return procNo / 2;
+  }
+
+  public int[] ringEmbedding() {
+    int order[] = new int[procNo];
+
+    for (int i = 0; i < procNo; i++) {
+      order[i] = i;
+    }
+    return order;
+  }
+
+  public int dilation() {
+    return (procNo > 1) ? 1 : 0;
+  }
+
+  public String toString() {
+    return "ring";
+  }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This enumeration lists ways messages are passed through intermediate
+  * processors.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+enum RoutingMode {
+  STORE_AND_FORWARD("SF"),  // a message is forwarded when it has arrived whole
+  CUT_THROUGH("CT");        // a message is forwarded flit by flit
+
+  private final String abbreviation;
+
+  RoutingMode(String abbreviation) {
+    this.abbreviation = abbreviation;
+  }
+
+  // Return the short name used in titles of dialogs, e.g. "SF".
+  String getAbbreviation() {
+    return abbreviation;
+  }
+
+  // Return the mode with a given name or abbreviation (case insensitive).
+  static RoutingMode forName(String name) {
+    for (RoutingMode mode : values()) {
+      if (mode.abbreviation.equalsIgnoreCase(name)) {
+        return mode;
+      }
+    }
+    return valueOf(name.toUpperCase().replace('-', '_'));
+  }
+}
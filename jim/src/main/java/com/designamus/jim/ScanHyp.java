@@ -0,0 +1,157 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+
+/**
+  * This class implements engine of prefix sums (scan) on a hypercube. Each
+  * processor keeps the sum of the subcube it belongs to. In phase i it swaps
+  * the sum with the neighbour along ith link, adds it to its own and, if the
+  * neighbour has a lower label, to its prefix too. After d phases processor k
+  * holds the prefix of messages of processors 0..k (inclusive scan) or
+  * 0..k-1 (exclusive scan).
+  * <p>
+  * Results are written into messages of processors. An exclusive scan needs
+  * the identity element of the operator, it's the result of P0.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+class ScanHyp<A extends Acc<A>> {
+  private ScanListener<? super A> listener;  // this algorithm listener
+  private int                   d;         // dimension of hypercube
+  private int                   procNo;    // number of processors
+  private A                     identity;  // null for an inclusive scan
+  private Processor[]           threads;   // processors
+  private Barrier               barrier;   // used to synchronize threads
+  private Thread[]              runners;   // threads that run processors
+  private Traffic               traffic;   // counters of messages sent
+  private PhaseMetrics          metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;      // unique processor label
+    A   msg;     // message, it finally holds the result
+    A   prefix;  // prefix computed so far
+    A   sum;     // sum of the subcube computed so far
+    A   out;     // copy of the sum sent in the current phase
+
+    Channel<A>[] in;  // incoming links, one for each dimension
+
+    @SuppressWarnings("unchecked")
+    Processor(int id, A msg) {
+      this.id  = id;
+      this.msg = msg;
+      prefix   = (identity == null) ? msg : identity.copy();
+      sum      = msg.copy();
+      out      = msg.copy();
+      in       = new Channel[d];
+      for (int i = 0; i < d; i++) {
+        in[i] = new Channel<A>();
+      }
+    }
+
+    public void run() {
+      listener.procInited(id, msg);
+
+      for (int i = 0; i < d; i++) {
+        // label of the neighbour along ith link
+        int dest = id ^ (1 << i);
+
+        /*
+        Send a copy of the sum, the neighbour reads it while the sum is being
+        combined. It's written again only after the barrier.
+        */
+        out.set(sum);
+        threads[dest].in[i].send(out);
+        traffic.sent(id, i + 1, Traffic.words(out));
+
+        A other = in[i].receive();
+        if ((id & (1 << i)) != 0) {
+          // the neighbour's subcube precedes this one
+          prefix.combineLeft(other);
+          sum.combineLeft(other);
+        }
+        else {
+          sum.combine(other);
+        }
+
+        listener.procScanned(id, dest, i + 1, prefix);
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i + 1, i == (d - 1));
+        metrics.phaseDone(id);
+      }
+      if (prefix != msg) {
+        msg.set(prefix);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  // Inclusive scan.
+  ScanHyp(ScanListener<? super A> listener, A msg[], int d) {
+    this(listener, msg, null, d, new EngineConfig());
+  }
+
+  ScanHyp(ScanListener<? super A> listener, A msg[], int d,
+          EngineConfig config) {
+    this(listener, msg, null, d, config);
+  }
+
+  // Exclusive scan.
+  ScanHyp(ScanListener<? super A> listener, A msg[], A identity, int d) {
+    this(listener, msg, identity, d, new EngineConfig());
+  }
+
+  // Processor is an inner class, so its array can only be created raw.
+  @SuppressWarnings("unchecked")
+  ScanHyp(ScanListener<? super A> listener, A msg[], A identity, int d,
+          EngineConfig config) {
+    this.listener = listener;
+    this.d        = d;
+    this.identity = identity;
+    procNo        = 1 << d;
+    threads       = (Processor[])new ScanHyp.Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i, msg[i]);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.VectorAcc;
+
+/**
+  * This class implements engine of pipelined prefix sums (scan) on a ring.
+  * Prefixes flow from P0 along the ring in the order of labels, the link
+  * between the last processor and P0 isn't used. Vectors are split into
+  * segments, processor k combines segment s in phase k + s, so segments
+  * follow each other down the pipeline. With as many segments as processors
+  * the scan takes about 2p phases of m/p elements each, instead of p phases
+  * of m elements.
+  * <p>
+  * Results are written into messages of processors. An exclusive scan needs
+  * the identity element of the operator, it's the result of P0.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class ScanRing<A extends Acc<A>> {
+  private ScanListener<? super A> listener;  // this algorithm listener
+  private int                   procNo;    // number of processors
+  private int                   segments;  // number of segments of messages
+  private int                   length;    // number of elements of vectors
+  private int                   phases;    // number of phases
+  private A                     identity;  // null for an inclusive scan
+  private Processor[]           threads;   // processors
+  private Barrier               barrier;   // used to synchronize threads
+  private Thread[]              runners;   // threads that run processors
+  private Traffic               traffic;   // counters of messages sent
+  private PhaseMetrics          metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int id;      // unique processor label
+    A   msg;     // message, it finally holds the inclusive prefix
+    A   excl;    // exclusive prefix, or null for an inclusive scan
+
+    // incoming link from the previous processor on the ring
+    Channel<A> fromPrev = new Channel<A>();
+
+    Processor(int id, A msg) {
+      this.id  = id;
+      this.msg = msg;
+      excl     = (identity == null) ? null : identity.copy();
+    }
+
+    public void run() {
+      listener.procInited(id, msg);
+
+      for (int i = 1; i <= phases; i++) {
+        // segment of the message the processor deals with in this phase
+        int s = i - Math.max(id, 1);
+
+        if (s >= 0 && s < segments) {
+          if (id > 0) {
+            /*
+            The prefix of the previous processor is final within the
+            segment, it doesn't change it any more.
+            */
+            A prev = fromPrev.receive();
+            if (excl != null) {
+              set(excl, prev, s);
+            }
+            combineLeft(msg, prev, s);
+
+            listener.procScanned(id, id - 1, i, (excl != null) ? excl : msg);
+          }
+          if (id < procNo - 1) {
+            threads[id + 1].fromPrev.send(msg);
+            traffic.sent(id, i, (segments == 1) ? Traffic.words(msg) :
+                                                  bound(s + 1) - bound(s));
+          }
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(i, i == phases);
+        metrics.phaseDone(id);
+      }
+      if (excl != null) {
+        msg.set(excl);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  // Inclusive scan.
+  ScanRing(ScanListener<? super A> listener, A msg[], int procNo) {
+    this(listener, msg, null, procNo, new EngineConfig());
+  }
+
+  ScanRing(ScanListener<? super A> listener, A msg[], int procNo,
+           EngineConfig config) {
+    this(listener, msg, null, procNo, config);
+  }
+
+  // Exclusive scan.
+  ScanRing(ScanListener<? super A> listener, A msg[], A identity,
+           int procNo) {
+    this(listener, msg, identity, procNo, new EngineConfig());
+  }
+
+  // Processor is an inner class, so its array can only be created raw.
+  @SuppressWarnings("unchecked")
+  ScanRing(ScanListener<? super A> listener, A msg[], A identity,
+           int procNo, EngineConfig config) {
+    this.listener = listener;
+    this.procNo   = procNo;
+    this.identity = identity;
+    segments      = segments(procNo, msg[0]);
+    length        = (segments > 1) ? ((VectorAcc<?>)msg[0]).length() : 0;
+    phases        = phases(procNo, msg[0]);
+    threads       = (Processor[])new ScanRing.Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i, msg[i]);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  /*
+  Return the number of segments messages like a given one are split into.
+  Vectors are split into as many segments as there are processors, other
+  messages aren't split.
+  */
+  static int segments(int procNo, Acc<?> msg) {
+    if (msg instanceof VectorAcc) {
+      return Math.max(1, Math.min(procNo, ((VectorAcc<?>)msg).length()));
+    }
+    return 1;
+  }
+
+  // Return the number of phases of a scan of messages like a given one.
+  static int phases(int procNo, Acc<?> msg) {
+    return (procNo > 1) ? procNo + segments(procNo, msg) - 2 : 0;
+  }
+
+  // Return the index of the first element of a given segment.
+  private int bound(int segment) {
+    return (int)((long)segment * length / segments);
+  }
+
+  // Combine a segment of a message with the preceding prefix.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void combineLeft(A msg, A left, int s) {
+    if (segments == 1) {
+      msg.combineLeft(left);
+    }
+    else {
+      ((VectorAcc)msg).combineLeft((VectorAcc)left, bound(s), bound(s + 1));
+    }
+  }
+
+  // Copy a segment of a prefix into a message.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void set(A msg, A src, int s) {
+    if (segments == 1) {
+      msg.set(src);
+    }
+    else {
+      ((VectorAcc)msg).set((VectorAcc)src, bound(s), bound(s + 1));
+    }
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.Barrier;
+import com.designamus.jim.util.Channel;
+import com.designamus.jim.util.IntList;
+
+/**
+  * This class implements engine of single node accumulation on any topology.
+  * Partial results go to processor 0 along the spanning tree made of routing
+  * paths: a processor at distance k from P0 sends its partial result to the
+  * next hop in phase eccentricity - k + 1, after its children have sent
+  * theirs.
+  * <p>
+  * Subtrees don't cover ranges of labels on every topology, so the operator
+  * should be commutative. Engines for a hypercube and a ring combine partial
+  * results in the order of labels.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+class SingleNodeAcc<A extends Acc<A>> {
+  private SingleNodeAccListener<? super A> listener;  // this algorithm listener
+  private Topology              topology;  // interconnection of processors
+  private int                   procNo;    // number of processors
+  private int                   phases;    // eccentricity of P0
+  private Processor[]           threads;   // processors
+  private Barrier               barrier;   // used to synchronize threads
+  private Thread[]              runners;   // threads that run processors
+  private Traffic               traffic;   // counters of messages sent
+  private PhaseMetrics          metrics;   // times of phases
+
+  private class Processor implements Runnable {
+    int          id;            // unique processor label
+    A            acc;           // partial result of the subtree
+    int          level;         // distance from P0
+    int          parent;        // next hop towards P0
+    int          neighbours[];  // labels of neighbours
+    int          children[];    // neighbours whose next hop is this one
+    int          links[];       // indexes of channels from children
+    Channel<A>[] in;            // incoming links, one for each neighbour
+
+    @SuppressWarnings("unchecked")
+    Processor(int id, A msg) {
+      this.id    = id;
+      acc        = msg;
+      level      = topology.distance(id, 0);
+      parent     = topology.nextHop(id, 0);
+      neighbours = topology.neighbours(id);
+      in         = new Channel[neighbours.length];
+
+      IntList c = new IntList();
+      IntList l = new IntList();
+      for (int i = 0; i < neighbours.length; i++) {
+        in[i] = new Channel<A>();
+        if (neighbours[i] != 0 && topology.nextHop(neighbours[i], 0) == id) {
+          c.add(neighbours[i]);
+          l.add(i);
+        }
+      }
+      children = c.toArray();
+      links    = l.toArray();
+    }
+
+    public void run() {
+      listener.procInited(id, acc);
+
+      for (int phase = 1; phase <= phases; phase++) {
+        // children are one link further from P0, so they send a phase earlier
+        if (phase == phases - level) {
+          for (int i = 0; i < children.length; i++) {
+            acc.combine(in[links[i]].receive());
+
+            listener.procAcc(id, children[i], phase, acc);
+          }
+        }
+        else if (id != 0 && phase == phases - level + 1) {
+          // send the partial result, it isn't used here any more
+          threads[parent].in[linkOf(parent, id)].send(acc);
+          traffic.sent(id, phase, Traffic.words(acc));
+        }
+
+        // wait for all threads to complete phase
+        barrier.join(id);
+
+        listener.phaseCompleted(phase, phase == phases);
+        metrics.phaseDone(id);
+      }
+      if (id == 0) {
+        listener.finished();
+      }
+    }
+  }
+
+  SingleNodeAcc(SingleNodeAccListener<? super A> listener, A msg[],
+                Topology topology) {
+    this(listener, msg, topology, new EngineConfig());
+  }
+
+  // Processor is an inner class, so its array can only be created raw.
+  @SuppressWarnings("unchecked")
+  SingleNodeAcc(SingleNodeAccListener<? super A> listener, A msg[],
+                Topology topology, EngineConfig config) {
+    this.listener = listener;
+    this.topology = topology;
+    procNo        = topology.size();
+    phases        = topology.eccentricity(0);
+    threads       = (Processor[])new SingleNodeAcc.Processor[procNo];
+    barrier       = config.createBarrier(procNo);
+    traffic       = config.getTraffic();
+    metrics       = config.getMetrics();
+
+    // create and start processors threads
+    for (int i = 0; i < procNo; i++) {
+      threads[i] = new Processor(i, msg[i]);
+    }
+    runners = new Thread[procNo];
+    for (int i = 0; i < procNo; i++) {
+      runners[i] = config.getExecutionMode().newThread(threads[i], "P" + i);
+      runners[i].start();
+    }
+  }
+
+  // Return the number of phases the algorithm takes.
+  int getPhases() {
+    return phases;
+  }
+
+  // Return the index of the channel of processor id that comes from another.
+  private int linkOf(int id, int from) {
+    int n[] = threads[id].neighbours;
+
+    for (int i = 0; i < n.length; i++) {
+      if (n[i] == from) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("P" + from + " isn't a neighbour of P" +
+                                    id);
+  }
+
+  // Wait until all processors threads finish.
+  void join() throws InterruptedException {
+    for (int i = 0; i < procNo; i++) {
+      runners[i].join();
+    }
+  }
+}
@@ -1,31 +1,32 @@
-/**
- * Copyright 1998 Lukasz Szelag
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * 
- *  http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
- 
-package com.designamus.jim;
-
-/**
-  * This interface is a bridge between single node accumulation engine and GUI
-  * that visualizes the algorithm.
-  *
-  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
-  * @version 1.0 11/11/98
-  */
-interface SingleNodeAccListener {
-  void procInited(int id, int msg);
-  void procAcc(int id, int from, int phase, int sum);
-  void phaseCompleted(int phase, boolean last);
-  void finished();
-}
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This interface is a bridge between single node accumulation engine and GUI
+  * that visualizes the algorithm. Partial results are passed as they are, a
+  * listener must not keep or change them after a callback returns.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+interface SingleNodeAccListener<A> {
+  void procInited(int id, A msg);
+  void procAcc(int id, int from, int phase, A acc);
+  void phaseCompleted(int phase, boolean last);
+  void finished();
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This interface describes how processors are connected. Processors are
+  * labelled from 0 to size() - 1 and messages go between neighbours only, so
+  * a message to a distant processor takes a path of nextHop() links.
+  * <p>
+  * Only OneToAllPerson and SingleNodeAcc run on any topology. The hypercube
+  * and ring engines step through textbook schedules defined by labels (bits
+  * of a label, or its position on the ring), so they work the neighbours out
+  * from labels themselves.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+interface Topology {
+  // Return the number of processors.
+  int size();
+
+  // Return labels of neighbours of a processor, each of them once.
+  int[] neighbours(int id);
+
+  /*
+  Return the neighbour of a processor that a message to a given destination is
+  passed to. Routing is deterministic and follows shortest paths, so paths
+  from all processors to one destination make a spanning tree.
+  */
+  int nextHop(int from, int to);
+
+  // Return the number of links on the path between processors.
+  int distance(int from, int to);
+
+  // Return the largest distance between two processors.
+  int diameter();
+
+  // Return the largest distance between a given processor and any other.
+  int eccentricity(int id);
+
+  /*
+  Return labels of processors in the order they make a ring embedded in this
+  topology, starting with processor 0. Processors next to each other on the
+  ring (and the last and the first one) are at most dilation() links apart.
+  A new array is returned each time.
+  */
+  int[] ringEmbedding();
+
+  // Return the largest distance between neighbours on the embedded ring.
+  int dilation();
+}
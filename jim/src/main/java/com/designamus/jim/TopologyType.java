@@ -0,0 +1,62 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This enumeration lists topologies that engines can be run on.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+enum TopologyType {
+  RING,       // p processors, diameter p/2
+  HYPERCUBE,  // 2^d processors, diameter d
+  MESH,       // rows x cols grid, diameter rows + cols - 2
+  TORUS;      // rows x cols grid with wraparound, diameter rows/2 + cols/2
+
+  // Return the topology type with a given name (case insensitive).
+  static TopologyType forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+
+  /*
+  Create the topology of a given number of processors. A mesh and a torus are
+  made as square as the number of processors allows.
+  */
+  Topology create(int procNo) {
+    switch (this) {
+      case HYPERCUBE:
+        if (Integer.bitCount(procNo) != 1) {
+          throw new IllegalArgumentException("number of processors of a " +
+                                             "hypercube must be a power of 2");
+        }
+        return new Hypercube(Integer.numberOfTrailingZeros(procNo));
+
+      case MESH:
+      case TORUS:
+        int rows = (int)Math.sqrt(procNo);
+        while (procNo % rows != 0) {
+          rows--;
+        }
+        return (this == MESH) ? new Mesh2D(rows, procNo / rows) :
+                                new Torus2D(rows, procNo / rows);
+
+      default:
+        return new Ring(procNo);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+/**
+  * This class implements a two dimensional torus topology. It's a mesh whose
+  * rows and columns are closed into rings, messages go along the row and then
+  * along the column, each way round the shorter side.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class Torus2D extends Mesh2D {
+  Torus2D(int rows, int cols) {
+    super(rows, cols);
+  }
+
+  protected int label(int row, int col) {
+    return ((row + rows) % rows) * cols + (col + cols) % cols;
+  }
+
+  // Go up if it's shorter, on a tie go down.
+  protected int step(int a, int b, int n) {
+    int delta = (b - a + n) % n;
+
+    return (delta < n - delta) ? (a + 1) % n : (a + n - 1) % n;
+  }
+
+  public int distance(int from, int to) {
+    int dRow = Math.abs(from / cols - to / cols);
+    int dCol = Math.abs(from % cols - to % cols);
+
+    return Math.min(dRow, rows - dRow) + Math.min(dCol, cols - dCol);
+  }
+
+  public int diameter() {
+    return rows / 2 + cols / 2;
+  }
+
+  public int eccentricity(int id) {
+    return rows / 2 + cols / 2;
+  }
+
+  public String toString() {
+    return "torus " + rows + "x" + cols;
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim;
+
+import com.designamus.jim.util.Acc;
+import com.designamus.jim.util.VectorAcc;
+import java.util.Arrays;
+
+/**
+  * This class counts messages and words that processors of an engine send in
+  * each phase. Every processor updates only its own counters, so they aren't
+  * synchronized; they are read when all processors threads have finished.
+  * Engines that aren't instrumented get NONE, which records nothing.
+  *
+  * @author  Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+class Traffic {
+  // shared instance that ignores messages
+  static final Traffic NONE = new Traffic(0) {
+    void sent(int id, int phase, int words) {
+    }
+  };
+
+  private Counters procs[];  // counters of processors
+
+  // Counters of a processor indexed by phase, enlarged on demand.
+  private static class Counters {
+    long msgs[]  = new long[0];  // messages sent
+    long words[] = new long[0];  // words sent
+
+    void ensure(int phase) {
+      if (phase >= msgs.length) {
+        int n = Math.max(phase + 1, 2 * msgs.length);
+        msgs  = Arrays.copyOf(msgs, n);
+        words = Arrays.copyOf(words, n);
+      }
+    }
+  }
+
+  Traffic(int procNo) {
+    procs = new Counters[procNo];
+    for (int i = 0; i < procNo; i++) {
+      procs[i] = new Counters();
+    }
+  }
+
+  /*
+  Record a message of a given number of words sent by a processor over one
+  of its links in a given phase.
+  */
+  void sent(int id, int phase, int words) {
+    Counters c = procs[id];
+
+    c.ensure(phase);
+    c.msgs[phase]++;
+    c.words[phase] += words;
+  }
+
+  // Return the number of words of a partial result.
+  static int words(Acc<?> acc) {
+    return (acc instanceof VectorAcc) ? ((VectorAcc<?>)acc).length() : 1;
+  }
+
+  int getProcNo() {
+    return procs.length;
+  }
+
+  // Return the last phase any message has been sent in.
+  int getPhases() {
+    int phases = 0;
+    for (int i = 0; i < procs.length; i++) {
+      for (int j = procs[i].msgs.length - 1; j > phases; j--) {
+        if (procs[i].msgs[j] > 0) {
+          phases = j;
+        }
+      }
+    }
+    return phases;
+  }
+
+  // Return the number of messages a processor has sent in a given phase.
+  long getMessages(int id, int phase) {
+    Counters c = procs[id];
+    return (phase < c.msgs.length) ? c.msgs[phase] : 0;
+  }
+
+  // Return the number of words a processor has sent in a given phase.
+  long getWords(int id, int phase) {
+    Counters c = procs[id];
+    return (phase < c.words.length) ? c.words[phase] : 0;
+  }
+
+  // Return the number of messages sent in a given phase.
+  long getMessages(int phase) {
+    long n = 0;
+    for (int i = 0; i < procs.length; i++) {
+      n += getMessages(i, phase);
+    }
+    return n;
+  }
+
+  // Return the number of words sent in a given phase.
+  long getWords(int phase) {
+    long n = 0;
+    for (int i = 0; i < procs.length; i++) {
+      n += getWords(i, phase);
+    }
+    return n;
+  }
+
+  /*
+  Return the largest number of words a processor has sent in a given phase.
+  Processors send over one link at a time, so it's the load of the busiest
+  link.
+  */
+  long getMaxWords(int phase) {
+    long n = 0;
+    for (int i = 0; i < procs.length; i++) {
+      n = Math.max(n, getWords(i, phase));
+    }
+    return n;
+  }
+
+  // Return the number of processors that have sent in a given phase.
+  int getActive(int phase) {
+    int n = 0;
+    for (int i = 0; i < procs.length; i++) {
+      if (getMessages(i, phase) > 0) {
+        n++;
+      }
+    }
+    return n;
+  }
+}
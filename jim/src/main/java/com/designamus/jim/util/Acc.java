@@ -0,0 +1,53 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This interface is implemented by partial results of a reduction with an
+  * associative operator. Partial results are combined in place, so a
+  * reduction doesn't allocate memory and primitive values aren't boxed.
+  * <p>
+  * The operator doesn't have to be commutative, the side a partial result is
+  * combined from says which of the two covers lower processor labels.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public interface Acc<A extends Acc<A>> {
+  /**
+   * Combines this partial result with one that follows it, i.e. this
+   * becomes this op right.
+   */
+  void combine(A right);
+
+  /**
+   * Combines this partial result with one that precedes it, i.e. this
+   * becomes left op this.
+   */
+  void combineLeft(A left);
+
+  /**
+   * Returns a new partial result with a copy of the value of this one and the
+   * same operator.
+   */
+  A copy();
+
+  /**
+   * Replaces the value of this partial result with the value of another one.
+   */
+  void set(A src);
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This enumeration lists implementations of barriers that engines can be
+  * run with.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public enum BarrierType {
+  MONITOR,        // single lock, all threads woken up with signalAll()
+  SPIN,           // sense-reversing, spins and then parks
+  TREE,           // combining tree, O(log p) arrival and release
+  DISSEMINATION;  // ceil(log p) rounds of pairwise signals
+
+  /**
+   * Returns the barrier type with a given name (case insensitive).
+   */
+  public static BarrierType forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+
+  /**
+   * Creates a new barrier of this type for a given number of threads.
+   *
+   * @param parties  the number of threads to release the barrier
+   */
+  public Barrier create(int parties) {
+    switch (this) {
+      case SPIN:
+        return new SpinBarrier(parties);
+      case TREE:
+        return new TreeBarrier(parties);
+      case DISSEMINATION:
+        return new DisseminationBarrier(parties);
+      default:
+        return new MonitorBarrier(parties);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+  * This class implements a one way link between two threads. It's a bounded
+  * lock-free queue for a single sending and a single receiving thread:
+  * messages are stored in a ring of slots and each side only writes its own
+  * counter, so neither of them ever takes a lock. A receiving thread spins
+  * for a while and then parks until a message arrives.
+  * <p>
+  * Sending a message publishes it, i.e. everything the sender has written
+  * before is visible to the receiver after it gets the message.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public final class Channel<T> {
+  private final Object    slots[];   // ring of messages
+  private final int       mask;      // slots.length - 1
+  private volatile long   head;      // number of received messages
+  private volatile long   tail;      // number of sent messages
+  private volatile Thread receiver;  // set while the receiver is parked
+
+  /**
+   * Constructs a new Channel that holds one message at a time.
+   */
+  public Channel() {
+    this(1);
+  }
+
+  /**
+   * Constructs a new Channel that holds up to the specified number of messages
+   * that haven't been received yet. The capacity is rounded up to a power of
+   * 2.
+   */
+  public Channel(int capacity) {
+    if (capacity < 1 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("invalid capacity: " + capacity);
+    }
+
+    int n = Integer.highestOneBit(capacity);
+    if (n < capacity) {
+      n <<= 1;
+    }
+    slots = new Object[n];
+    mask  = n - 1;
+  }
+
+  /**
+   * Sends a message. It returns at once unless the channel is full, then it
+   * waits until the receiver takes a message.
+   *
+   * @param msg  the message, not null
+   */
+  public void send(T msg) {
+    if (msg == null) {
+      throw new NullPointerException("msg");
+    }
+
+    long t = tail;
+    while (t - head >= slots.length) {
+      Thread.yield();
+    }
+
+    // the message is published by the write of the counter
+    slots[(int)t & mask] = msg;
+    tail = t + 1;
+
+    Thread r = receiver;
+    if (r != null) {
+      LockSupport.unpark(r);
+    }
+  }
+
+  /**
+   * Sends a message if the channel isn't full. It never waits.
+   *
+   * @param msg  the message, not null
+   * @return     true if the message has been sent
+   */
+  public boolean offer(T msg) {
+    if (msg == null) {
+      throw new NullPointerException("msg");
+    }
+
+    long t = tail;
+    if (t - head >= slots.length) {
+      return false;
+    }
+
+    slots[(int)t & mask] = msg;
+    tail = t + 1;
+
+    Thread r = receiver;
+    if (r != null) {
+      LockSupport.unpark(r);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the next message or null if there is none. It never waits.
+   */
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long h = head;
+    if (h == tail) {
+      return null;
+    }
+
+    int i   = (int)h & mask;
+    T   msg = (T)slots[i];
+    slots[i] = null;
+    head     = h + 1;
+
+    return msg;
+  }
+
+  /**
+   * Returns the next message. It waits until a message arrives.
+   */
+  public T receive() {
+    T msg;
+
+    for (int i = ReleaseFlag.spins(); i > 0; i--) {
+      if ((msg = poll()) != null) {
+        return msg;
+      }
+    }
+
+    /*
+    The receiver is registered before the channel is checked again, so the
+    sender either sees it and unparks it or the receiver sees the message.
+    */
+    receiver = Thread.currentThread();
+    while ((msg = poll()) == null) {
+      LockSupport.park(this);
+    }
+    receiver = null;
+
+    return msg;
+  }
+
+  /**
+   * Returns true if there are no messages waiting to be received.
+   */
+  public boolean isEmpty() {
+    return head == tail;
+  }
+}
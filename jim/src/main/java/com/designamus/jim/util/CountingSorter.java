@@ -0,0 +1,70 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This class sorts elements using counting sort. It takes O(n + k) time and
+  * O(k) additional space, where k is the number of distinct values between the
+  * smallest and the largest element, so it suits short intervals of values.
+  * When it's chosen explicitly for an interval much longer than the sequence,
+  * the count array would be too large (or its size would overflow), so such
+  * ranges are sorted with dual-pivot quick sort instead.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public class CountingSorter implements LocalSorter {
+  // used for intervals that are too long to be counted
+  private final LocalSorter fallback = new DualPivotQuickSorter();
+
+  public void sort(int data[], int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+
+    // find the interval of values
+    int min = data[from];
+    int max = data[from];
+    for (int i = from + 1; i < to; i++) {
+      if (data[i] < min) {
+        min = data[i];
+      }
+      else if (data[i] > max) {
+        max = data[i];
+      }
+    }
+
+    long range = (long)max - min + 1;
+    // the count array may take a few times the space of the elements
+    if (range > 4L * (to - from) + 256) {
+      fallback.sort(data, from, to);
+      return;
+    }
+
+    int count[] = new int[(int)range];
+    for (int i = from; i < to; i++) {
+      count[data[i] - min]++;
+    }
+
+    int c = from;
+    for (int v = 0; v < count.length; v++) {
+      for (int j = count[v]; j > 0; j--) {
+        data[c++] = min + v;
+      }
+    }
+  }
+}
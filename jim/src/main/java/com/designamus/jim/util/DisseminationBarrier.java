@@ -0,0 +1,92 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+  * This class implements a dissemination barrier. In round r thread i
+  * signals thread (i + 2^r) mod p and waits for a signal from thread
+  * (i - 2^r) mod p. After ceil(log p) rounds every thread has heard from all
+  * others, with no shared counter. On a hypercube of 2^d threads the rounds
+  * match the d dimensions of the cube.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public class DisseminationBarrier implements Barrier {
+  private int                          parties;    // number of threads
+  private int                          rounds;     // ceil(log parties)
+  private AtomicLongArray              signals;    // signals of each round
+  private long                         episode[];  // episodes of each thread
+  private AtomicReferenceArray<Thread> parked;     // threads that are parked
+
+  /**
+   * Constructs a new DisseminationBarrier for a given number of threads.
+   *
+   * @param parties  the number of threads to release the barrier
+   */
+  public DisseminationBarrier(int parties) {
+    this.parties = parties;
+    rounds       = 32 - Integer.numberOfLeadingZeros(Math.max(1, parties - 1));
+    if (parties == 1) {
+      rounds = 0;
+    }
+
+    /*
+    Signals are counted rather than flagged, so they never have to be reset
+    and a fast thread can signal the next episode ahead of time.
+    */
+    signals = new AtomicLongArray(parties * Math.max(1, rounds));
+    episode = new long[parties];
+    parked  = new AtomicReferenceArray<Thread>(parties);
+  }
+
+  public void join(int id) {
+    long e = ++episode[id];
+
+    for (int r = 0; r < rounds; r++) {
+      int to = (id + (1 << r)) % parties;
+
+      signals.incrementAndGet(to * rounds + r);
+      Thread t = parked.get(to);
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+
+      await(id, id * rounds + r, e);
+    }
+  }
+
+  // Wait until a given counter of signals reaches an episode.
+  private void await(int id, int index, long e) {
+    for (int i = ReleaseFlag.spins(); i > 0; i--) {
+      if (signals.get(index) >= e) {
+        return;
+      }
+    }
+
+    // register before checking again, so a signal can't be missed
+    parked.set(id, Thread.currentThread());
+    while (signals.get(index) < e) {
+      LockSupport.park(this);
+    }
+    parked.set(id, null);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+  * This class implements a partial result of a reduction of double values.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public final class DoubleAcc implements Acc<DoubleAcc> {
+  private final DoubleBinaryOperator op;     // associative operator
+  private double                     value;  // partial result
+
+  /**
+   * Constructs a new DoubleAcc with an initial value and an operator.
+   */
+  public DoubleAcc(double value, DoubleBinaryOperator op) {
+    this.value = value;
+    this.op    = op;
+  }
+
+  /**
+   * Constructs a new DoubleAcc with an initial value and a common operator.
+   */
+  public DoubleAcc(double value, ReduceOp op) {
+    this(value, op.doubleOp());
+  }
+
+  /**
+   * Returns partial results holding given values, all with the same operator.
+   */
+  public static DoubleAcc[] of(double values[], DoubleBinaryOperator op) {
+    DoubleAcc a[] = new DoubleAcc[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      a[i] = new DoubleAcc(values[i], op);
+    }
+    return a;
+  }
+
+  /**
+   * Returns the partial result.
+   */
+  public double get() {
+    return value;
+  }
+
+  public void combine(DoubleAcc right) {
+    value = op.applyAsDouble(value, right.value);
+  }
+
+  public void combineLeft(DoubleAcc left) {
+    value = op.applyAsDouble(left.value, value);
+  }
+
+  public DoubleAcc copy() {
+    return new DoubleAcc(value, op);
+  }
+
+  public void set(DoubleAcc src) {
+    value = src.value;
+  }
+
+  public String toString() {
+    return Double.toString(value);
+  }
+}
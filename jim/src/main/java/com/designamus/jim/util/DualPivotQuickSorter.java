@@ -0,0 +1,33 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.Arrays;
+
+/**
+  * This class sorts elements using dual-pivot quick sort. It is a general
+  * purpose O(n log n) sorter that doesn't depend on the range of values.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public class DualPivotQuickSorter implements LocalSorter {
+  public void sort(int data[], int from, int to) {
+    // the platform sort for primitive int arrays is dual-pivot quick sort
+    Arrays.sort(data, from, to);
+  }
+}
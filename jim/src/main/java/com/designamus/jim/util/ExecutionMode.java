@@ -0,0 +1,116 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.lang.reflect.Method;
+
+/**
+  * This enumeration lists kinds of threads that processors can be run on.
+  * Virtual threads are used if the JVM supports them (Java 21 and later);
+  * otherwise processors run on platform threads with a small stack, so a
+  * simulated processor still costs kilobytes rather than a megabyte.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public enum ExecutionMode {
+  PLATFORM,  // one platform thread with the default stack per processor
+  VIRTUAL;   // one virtual thread per processor
+
+  // stack size of platform threads used when virtual threads are unavailable
+  private static final long COMPACT_STACK_SIZE = 128 * 1024;
+
+  // Thread.ofVirtual(), Thread.Builder.name(), unstarted() and isVirtual()
+  private static final Method OF_VIRTUAL;
+  private static final Method NAME;
+  private static final Method UNSTARTED;
+  private static final Method IS_VIRTUAL;
+
+  static {
+    Method ofVirtual = null, name = null, unstarted = null, isVirtual = null;
+
+    try {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name      = builder.getMethod("name", String.class);
+      unstarted = builder.getMethod("unstarted", Runnable.class);
+      isVirtual = Thread.class.getMethod("isVirtual");
+    }
+    catch (ReflectiveOperationException e) {
+      ofVirtual = null;
+    }
+
+    OF_VIRTUAL = ofVirtual;
+    NAME       = name;
+    UNSTARTED  = unstarted;
+    IS_VIRTUAL = isVirtual;
+  }
+
+  /**
+   * Returns the execution mode with a given name (case insensitive).
+   */
+  public static ExecutionMode forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+
+  /**
+   * Returns true if the JVM supports virtual threads.
+   */
+  public static boolean isVirtualSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Returns true if a given thread is a virtual thread.
+   */
+  public static boolean isVirtual(Thread t) {
+    if (IS_VIRTUAL == null) {
+      return false;
+    }
+
+    try {
+      return ((Boolean)IS_VIRTUAL.invoke(t)).booleanValue();
+    }
+    catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates a new thread of this kind. The thread is not started.
+   *
+   * @param task  the task to be run by the thread
+   * @param name  the name of the thread
+   */
+  public Thread newThread(Runnable task, String name) {
+    if (this == PLATFORM) {
+      return new Thread(task, name);
+    }
+
+    if (OF_VIRTUAL != null) {
+      try {
+        Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+        return (Thread)UNSTARTED.invoke(builder, task);
+      }
+      catch (ReflectiveOperationException e) {
+        // fall back to a platform thread
+      }
+    }
+    return new Thread(null, task, name, COMPACT_STACK_SIZE);
+  }
+}
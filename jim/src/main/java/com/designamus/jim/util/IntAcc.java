@@ -0,0 +1,84 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+  * This class implements a partial result of a reduction of int values.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public final class IntAcc implements Acc<IntAcc> {
+  private final IntBinaryOperator op;     // associative operator
+  private int                     value;  // partial result
+
+  /**
+   * Constructs a new IntAcc with an initial value and an operator.
+   */
+  public IntAcc(int value, IntBinaryOperator op) {
+    this.value = value;
+    this.op    = op;
+  }
+
+  /**
+   * Constructs a new IntAcc with an initial value and a common operator.
+   */
+  public IntAcc(int value, ReduceOp op) {
+    this(value, op.intOp());
+  }
+
+  /**
+   * Returns partial results holding given values, all with the same operator.
+   */
+  public static IntAcc[] of(int values[], IntBinaryOperator op) {
+    IntAcc a[] = new IntAcc[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      a[i] = new IntAcc(values[i], op);
+    }
+    return a;
+  }
+
+  /**
+   * Returns the partial result.
+   */
+  public int get() {
+    return value;
+  }
+
+  public void combine(IntAcc right) {
+    value = op.applyAsInt(value, right.value);
+  }
+
+  public void combineLeft(IntAcc left) {
+    value = op.applyAsInt(left.value, value);
+  }
+
+  public IntAcc copy() {
+    return new IntAcc(value, op);
+  }
+
+  public void set(IntAcc src) {
+    value = src.value;
+  }
+
+  public String toString() {
+    return Integer.toString(value);
+  }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This class implements a growable list of primitive int values. Elements are
+  * kept in a single array that is enlarged on demand, so there is no
+  * per-element allocation.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public class IntList {
+  private static final int[] EMPTY = new int[0];
+
+  protected int data[];  // elements storage
+  protected int size;    // number of elements in the list
+
+  /**
+   * Constructs a new empty IntList.
+   */
+  public IntList() {
+    data = EMPTY;
+  }
+
+  /**
+   * Constructs a new empty IntList with the specified initial capacity.
+   *
+   * @param capacity  the initial capacity of the list
+   */
+  public IntList(int capacity) {
+    data = (capacity > 0) ? new int[capacity] : EMPTY;
+  }
+
+  /**
+   * Returns the number of elements in this list.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the element at the specified position.
+   */
+  public int get(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return data[index];
+  }
+
+  /**
+   * Replaces the element at the specified position.
+   */
+  public void set(int index, int e) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    data[index] = e;
+  }
+
+  /**
+   * Appends an element to this list.
+   */
+  public void add(int e) {
+    if (size == data.length) {
+      grow(size + 1);
+    }
+    data[size++] = e;
+  }
+
+  /**
+   * Appends a range of elements of a given array to this list.
+   *
+   * @param src  the source array
+   * @param off  the index of the first element to be appended
+   * @param len  the number of elements to be appended
+   */
+  public void add(int src[], int off, int len) {
+    ensureCapacity(size + len);
+    System.arraycopy(src, off, data, size, len);
+    size += len;
+  }
+
+  /**
+   * Appends all elements of a given array to this list.
+   */
+  public void add(int src[]) {
+    add(src, 0, src.length);
+  }
+
+  /**
+   * Copies all elements of this list to a given array.
+   *
+   * @param dst  the destination array
+   * @param off  the index in the destination array of the first element
+   */
+  public void copyTo(int dst[], int off) {
+    System.arraycopy(data, 0, dst, off, size);
+  }
+
+  /**
+   * Returns a new array that holds all elements of this list.
+   */
+  public int[] toArray() {
+    int a[] = new int[size];
+
+    System.arraycopy(data, 0, a, 0, size);
+    return a;
+  }
+
+  /**
+   * Returns all elements of this list and removes them. The storage is kept
+   * for the subsequent use.
+   */
+  public int[] pop() {
+    int a[] = toArray();
+
+    size = 0;
+    return a;
+  }
+
+  /**
+   * Removes all elements from this list. The storage is kept for the
+   * subsequent use.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Removes elements from the end of this list, so it holds the specified
+   * number of elements.
+   */
+  public void truncate(int size) {
+    if (size < 0 || size > this.size) {
+      throw new IllegalArgumentException("invalid size: " + size);
+    }
+    this.size = size;
+  }
+
+  /**
+   * Makes sure that this list can hold at least the specified number of
+   * elements without enlarging its storage.
+   */
+  public void ensureCapacity(int capacity) {
+    if (capacity > data.length) {
+      grow(capacity);
+    }
+  }
+
+  // Enlarge the storage so it holds at least a given number of elements.
+  private void grow(int capacity) {
+    int newCapacity = data.length + (data.length >> 1) + 16;
+    if (newCapacity < capacity || newCapacity < 0) {
+      newCapacity = capacity;
+    }
+
+    int a[] = new int[newCapacity];
+    System.arraycopy(data, 0, a, 0, size);
+    data = a;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This class implements a read-only view of a range of an int array. Slices
+  * of a slice share the same array, so a message can be split and passed
+  * between processors without copying elements. The array must not be changed
+  * while views of it are in use.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+public final class IntSlice implements IntView {
+  private final int data[];  // shared elements storage
+  private final int offset;  // index of the first element in the array
+  private final int length;  // number of elements in the view
+
+  /**
+   * Constructs a new IntSlice that views a whole array.
+   */
+  public IntSlice(int data[]) {
+    this(data, 0, data.length);
+  }
+
+  /**
+   * Constructs a new IntSlice that views a range of an array.
+   *
+   * @param data    the array
+   * @param offset  the index of the first element of the range
+   * @param length  the number of elements of the range
+   */
+  public IntSlice(int data[], int offset, int length) {
+    if (offset < 0 || length < 0 || offset > data.length - length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " +
+                                          length + ", array " + data.length);
+    }
+    this.data   = data;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Returns the number of elements in this slice.
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns the element at the specified position.
+   */
+  public int get(int index) {
+    if (index < 0 || index >= length) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return data[offset + index];
+  }
+
+  /**
+   * Returns a view of a range of this slice. No elements are copied.
+   *
+   * @param from    the index of the first element of the range
+   * @param length  the number of elements of the range
+   */
+  public IntSlice slice(int from, int length) {
+    if (from < 0 || length < 0 || from > this.length - length) {
+      throw new IndexOutOfBoundsException("from " + from + ", length " +
+                                          length + ", slice " + this.length);
+    }
+    return new IntSlice(data, offset + from, length);
+  }
+
+  /**
+   * Copies all elements of this slice to a given array.
+   *
+   * @param dst  the destination array
+   * @param off  the index in the destination array of the first element
+   */
+  public void copyTo(int dst[], int off) {
+    System.arraycopy(data, offset, dst, off, length);
+  }
+
+  /**
+   * Returns a new array that holds all elements of this slice.
+   */
+  public int[] toArray() {
+    int a[] = new int[length];
+
+    copyTo(a, 0);
+    return a;
+  }
+
+  /**
+   * Returns this slice, its array isn't changed while it's in use.
+   */
+  public IntSlice snapshot() {
+    return this;
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+  * This class implements a partial result of a reduction of fixed length
+  * vectors of int values. Vectors are combined element by element; common
+  * operators are applied in plain loops the compiler can vectorize.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public final class IntVectorAcc implements VectorAcc<IntVectorAcc> {
+  private final IntBinaryOperator op;      // associative operator
+  private final ReduceOp          kind;    // common operator, or null
+  private final int               data[];  // partial result
+
+  /**
+   * Constructs a new IntVectorAcc with an initial vector and an operator.
+   * The vector is used as is, it's not copied.
+   */
+  public IntVectorAcc(int data[], IntBinaryOperator op) {
+    this(data, op, null);
+  }
+
+  /**
+   * Constructs a new IntVectorAcc with an initial vector and a common
+   * operator. The vector is used as is, it's not copied.
+   */
+  public IntVectorAcc(int data[], ReduceOp op) {
+    this(data, op.intOp(), op);
+  }
+
+  private IntVectorAcc(int data[], IntBinaryOperator op,
+                       ReduceOp kind) {
+    this.data = data;
+    this.op   = op;
+    this.kind = kind;
+  }
+
+  /**
+   * Returns the number of elements of the vector.
+   */
+  public int length() {
+    return data.length;
+  }
+
+  /**
+   * Returns an element of the partial result.
+   */
+  public int get(int index) {
+    return data[index];
+  }
+
+  /**
+   * Returns a copy of the partial result.
+   */
+  public int[] toArray() {
+    return data.clone();
+  }
+
+  public void combine(IntVectorAcc right) {
+    combine(right, 0, data.length);
+  }
+
+  public void combineLeft(IntVectorAcc left) {
+    combineLeft(left, 0, data.length);
+  }
+
+  public void combine(IntVectorAcc right, int from, int to) {
+    check(right);
+    apply(data, right.data, from, to);
+  }
+
+  public void combineLeft(IntVectorAcc left, int from, int to) {
+    check(left);
+    apply(left.data, data, from, to);
+  }
+
+  public IntVectorAcc copy() {
+    return new IntVectorAcc(data.clone(), op, kind);
+  }
+
+  public void set(IntVectorAcc src) {
+    set(src, 0, data.length);
+  }
+
+  public void set(IntVectorAcc src, int from, int to) {
+    check(src);
+    System.arraycopy(src.data, from, data, from, to - from);
+  }
+
+  // Check that another partial result holds a vector of the same length.
+  private void check(IntVectorAcc other) {
+    if (other.data.length != data.length) {
+      throw new IllegalArgumentException("vectors of lengths " + data.length +
+                                         " and " + other.data.length);
+    }
+  }
+
+  // Set elements [from, to) of the partial result to a[i] op b[i].
+  private void apply(int a[], int b[], int from, int to) {
+    int dst[] = data;
+    if (kind == ReduceOp.SUM) {
+      for (int i = from; i < to; i++) {
+        dst[i] = a[i] + b[i];
+      }
+    }
+    else if (kind == ReduceOp.MIN) {
+      for (int i = from; i < to; i++) {
+        dst[i] = Math.min(a[i], b[i]);
+      }
+    }
+    else if (kind == ReduceOp.MAX) {
+      for (int i = from; i < to; i++) {
+        dst[i] = Math.max(a[i], b[i]);
+      }
+    }
+    else if (kind == ReduceOp.XOR) {
+      for (int i = from; i < to; i++) {
+        dst[i] = a[i] ^ b[i];
+      }
+    }
+    else {
+      for (int i = from; i < to; i++) {
+        dst[i] = op.applyAsInt(a[i], b[i]);
+      }
+    }
+  }
+
+  public String toString() {
+    return "[" + data.length + " ints]";
+  }
+}
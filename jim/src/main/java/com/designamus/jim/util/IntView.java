@@ -0,0 +1,60 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This interface is implemented by read-only views of sequences of int
+  * values. A view doesn't own its elements, so handing it out costs nothing;
+  * elements are copied only when a reader asks for them with copyTo() or
+  * toArray(). A view may be backed by storage that is changed later, so a
+  * reader that keeps the elements must copy them or take a snapshot().
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public interface IntView {
+  /**
+   * Returns the number of elements in this view.
+   */
+  int length();
+
+  /**
+   * Returns the element at the specified position.
+   */
+  int get(int index);
+
+  /**
+   * Copies all elements of this view to a given array.
+   *
+   * @param dst  the destination array
+   * @param off  the index in the destination array of the first element
+   */
+  void copyTo(int dst[], int off);
+
+  /**
+   * Returns a new array that holds all elements of this view.
+   */
+  int[] toArray();
+
+  /**
+   * Returns a view of elements as they are now, which doesn't follow later
+   * changes of the storage. Elements are copied at most once, when the
+   * storage is about to change, so a snapshot of storage that isn't changed
+   * costs nothing. A view of storage that never changes returns itself.
+   */
+  IntView snapshot();
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This interface is implemented by algorithms that are used by a processor to
+  * sort its local elements.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public interface LocalSorter {
+  /**
+   * Sorts a range of a given array into ascending order.
+   *
+   * @param data  the array to be sorted
+   * @param from  the index of the first element to be sorted (inclusive)
+   * @param to    the index of the last element to be sorted (exclusive)
+   */
+  void sort(int data[], int from, int to);
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This class holds shared instances of local sorters and chooses the one
+  * that suits a given sequence best.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public final class LocalSorters {
+  public static final LocalSorter QUICK_SORT    = new DualPivotQuickSorter();
+  public static final LocalSorter RADIX_SORT    = new RadixSorter();
+  public static final LocalSorter COUNTING_SORT = new CountingSorter();
+
+  // sequences at least that long are sorted with radix sort
+  private static final int RADIX_THRESHOLD = 1 << 16;
+
+  // the largest interval of values that is sorted with counting sort
+  private static final long COUNTING_MAX_RANGE = 1 << 24;
+
+  private LocalSorters() {
+  }
+
+  /**
+   * Returns a sorter for a sequence of a given size with all elements in the
+   * specified interval. Counting sort is used if the interval is not much
+   * longer than the sequence, radix sort for long sequences and quick sort
+   * otherwise.
+   *
+   * @param n    the number of elements to be sorted
+   * @param min  the smallest element
+   * @param max  the largest element
+   */
+  public static LocalSorter select(int n, int min, int max) {
+    long range = (long)max - min + 1;
+
+    if (range <= COUNTING_MAX_RANGE && range <= Math.max(256L, 2L * n)) {
+      return COUNTING_SORT;
+    }
+    if (n >= RADIX_THRESHOLD) {
+      return RADIX_SORT;
+    }
+    return QUICK_SORT;
+  }
+
+  /**
+   * Returns a sorter for a range of a given array. The interval of values is
+   * found by scanning the elements.
+   */
+  public static LocalSorter select(int data[], int from, int to) {
+    if (to - from < 2) {
+      return QUICK_SORT;
+    }
+
+    int min = data[from];
+    int max = data[from];
+    for (int i = from + 1; i < to; i++) {
+      if (data[i] < min) {
+        min = data[i];
+      }
+      else if (data[i] > max) {
+        max = data[i];
+      }
+    }
+    return select(to - from, min, max);
+  }
+}
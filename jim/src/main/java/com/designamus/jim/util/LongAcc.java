@@ -0,0 +1,84 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+  * This class implements a partial result of a reduction of long values.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public final class LongAcc implements Acc<LongAcc> {
+  private final LongBinaryOperator op;     // associative operator
+  private long                     value;  // partial result
+
+  /**
+   * Constructs a new LongAcc with an initial value and an operator.
+   */
+  public LongAcc(long value, LongBinaryOperator op) {
+    this.value = value;
+    this.op    = op;
+  }
+
+  /**
+   * Constructs a new LongAcc with an initial value and a common operator.
+   */
+  public LongAcc(long value, ReduceOp op) {
+    this(value, op.longOp());
+  }
+
+  /**
+   * Returns partial results holding given values, all with the same operator.
+   */
+  public static LongAcc[] of(long values[], LongBinaryOperator op) {
+    LongAcc a[] = new LongAcc[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      a[i] = new LongAcc(values[i], op);
+    }
+    return a;
+  }
+
+  /**
+   * Returns the partial result.
+   */
+  public long get() {
+    return value;
+  }
+
+  public void combine(LongAcc right) {
+    value = op.applyAsLong(value, right.value);
+  }
+
+  public void combineLeft(LongAcc left) {
+    value = op.applyAsLong(left.value, value);
+  }
+
+  public LongAcc copy() {
+    return new LongAcc(value, op);
+  }
+
+  public void set(LongAcc src) {
+    value = src.value;
+  }
+
+  public String toString() {
+    return Long.toString(value);
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+  * This class implements a barrier with a single monitor. The last thread to
+  * join wakes up all others, so it suits a small number of threads. The
+  * monitor is a lock with a condition rather than a synchronized block, so a
+  * waiting virtual thread doesn't pin its carrier thread.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.2 10/18/26
+  */
+public class MonitorBarrier implements Barrier {
+  protected int  count;
+  protected int  maxCount;
+  protected long episode;  // number of times the barrier has been released
+
+  private ReentrantLock lock     = new ReentrantLock();
+  private Condition     released = lock.newCondition();
+
+  /**
+   * Constructs a new MonitorBarrier initialized with the specified maximum
+   * counter.
+   *
+   * @param maxCount  the number of threads to release the barrier
+   */ 
+  public MonitorBarrier(int maxCount) {
+    this.maxCount = maxCount;
+  }
+
+  /**
+   * Called by a thread to join this barrier. A thread is blocked until the
+   * barrier is released. The barrier is released when maxCount threads join.
+   */ 
+  public void join(int id) {
+    lock.lock();
+    try {
+      if (++count == maxCount) {
+        count = 0;
+        episode++;
+        released.signalAll();
+      }
+      else {
+        long e = episode;
+
+        // guard against spurious wake ups
+        while (e == episode) {
+          released.awaitUninterruptibly();
+        }
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This class sorts elements using LSD radix sort. Elements are distributed
+  * byte by byte, starting from the least significant one, so sorting takes
+  * O(n) time and O(n) additional space.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public class RadixSorter implements LocalSorter {
+  private static final int BITS    = 8;
+  private static final int BUCKETS = 1 << BITS;
+  private static final int MASK    = BUCKETS - 1;
+
+  public void sort(int data[], int from, int to) {
+    int n = to - from;
+    if (n < 2) {
+      return;
+    }
+
+    int src[] = data;
+    int dst[] = new int[n];
+    int srcOff = from;
+    int dstOff = 0;
+
+    for (int shift = 0; shift < 32; shift += BITS) {
+      int count[] = new int[BUCKETS + 1];
+
+      /*
+      The sign bit is flipped in the most significant byte, so negative
+      elements are placed before positive ones.
+      */
+      int flip = (shift == 32 - BITS) ? BUCKETS >> 1 : 0;
+
+      for (int i = srcOff; i < srcOff + n; i++) {
+        count[(((src[i] >>> shift) & MASK) ^ flip) + 1]++;
+      }
+
+      // skip the pass if all elements have the same byte
+      boolean trivial = false;
+      for (int b = 1; b <= BUCKETS; b++) {
+        if (count[b] == n) {
+          trivial = true;
+          break;
+        }
+      }
+      if (trivial) {
+        continue;
+      }
+
+      // compute position of the first element of each bucket
+      for (int b = 0; b < BUCKETS; b++) {
+        count[b + 1] += count[b];
+      }
+      for (int i = srcOff; i < srcOff + n; i++) {
+        dst[dstOff + count[((src[i] >>> shift) & MASK) ^ flip]++] = src[i];
+      }
+
+      // swap the roles of buffers
+      int tmp[] = src;
+      src       = dst;
+      dst       = tmp;
+      int off   = srcOff;
+      srcOff    = dstOff;
+      dstOff    = off;
+    }
+
+    if (src != data) {
+      System.arraycopy(src, srcOff, data, from, n);
+    }
+  }
+}
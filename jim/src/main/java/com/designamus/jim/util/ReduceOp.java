@@ -0,0 +1,139 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+  * This enumeration lists common associative operators of reductions. Vector
+  * partial results combine elements of these operators in plain loops,
+  * other operators are called for each element.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+public enum ReduceOp {
+  SUM,  // wraps around on overflow for int and long
+  MIN,
+  MAX,
+  XOR;  // int and long only
+
+  /**
+   * Returns the operator type with a given name (case insensitive).
+   */
+  public static ReduceOp forName(String name) {
+    return valueOf(name.toUpperCase());
+  }
+
+  /**
+   * Returns this operator on int values.
+   */
+  public IntBinaryOperator intOp() {
+    switch (this) {
+      case MIN:
+        return Math::min;
+      case MAX:
+        return Math::max;
+      case XOR:
+        return (a, b) -> a ^ b;
+      default:
+        return Integer::sum;
+    }
+  }
+
+  /**
+   * Returns this operator on long values.
+   */
+  public LongBinaryOperator longOp() {
+    switch (this) {
+      case MIN:
+        return Math::min;
+      case MAX:
+        return Math::max;
+      case XOR:
+        return (a, b) -> a ^ b;
+      default:
+        return Long::sum;
+    }
+  }
+
+  /**
+   * Returns this operator on double values.
+   *
+   * @throws UnsupportedOperationException  if it's XOR
+   */
+  public DoubleBinaryOperator doubleOp() {
+    switch (this) {
+      case MIN:
+        return Math::min;
+      case MAX:
+        return Math::max;
+      case XOR:
+        throw new UnsupportedOperationException("xor of double values");
+      default:
+        return Double::sum;
+    }
+  }
+
+  /**
+   * Returns the identity element of this operator on int values.
+   */
+  public int intIdentity() {
+    switch (this) {
+      case MIN:
+        return Integer.MAX_VALUE;
+      case MAX:
+        return Integer.MIN_VALUE;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the identity element of this operator on long values.
+   */
+  public long longIdentity() {
+    switch (this) {
+      case MIN:
+        return Long.MAX_VALUE;
+      case MAX:
+        return Long.MIN_VALUE;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the identity element of this operator on double values.
+   *
+   * @throws UnsupportedOperationException  if it's XOR
+   */
+  public double doubleIdentity() {
+    switch (this) {
+      case MIN:
+        return Double.POSITIVE_INFINITY;
+      case MAX:
+        return Double.NEGATIVE_INFINITY;
+      case XOR:
+        throw new UnsupportedOperationException("xor of double values");
+      default:
+        return 0;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+  * This class implements a flag that threads wait for to be set to a given
+  * value. A waiting thread spins for a while and then parks, so short waits
+  * are fast and long ones don't waste processor time.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.1 10/18/26
+  */
+final class ReleaseFlag {
+  // number of checks of the flag before a platform thread parks
+  static final int SPINS = 1 << 10;
+
+  // spin count of each thread, found once since isVirtual() is reflective
+  private static final ThreadLocal<Integer> THREAD_SPINS =
+    new ThreadLocal<Integer>() {
+      protected Integer initialValue() {
+        return ExecutionMode.isVirtual(Thread.currentThread()) ? 0 : SPINS;
+      }
+    };
+
+  private volatile boolean              value;
+  private AtomicReferenceArray<Thread> waiters;  // parked threads
+
+  /*
+  Create the flag that can be waited for by threads that are assigned slots
+  from 0 to slots - 1.
+  */
+  ReleaseFlag(int slots) {
+    waiters = new AtomicReferenceArray<Thread>(Math.max(1, slots));
+  }
+
+  boolean get() {
+    return value;
+  }
+
+  // Set the flag and wake up all parked threads.
+  void set(boolean v) {
+    value = v;
+
+    for (int i = 0; i < waiters.length(); i++) {
+      Thread t = waiters.get(i);
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+  }
+
+  /*
+  Return the number of times the calling thread should check a condition
+  before it parks. A virtual thread parks at once, since spinning would only
+  hold up its carrier thread.
+  */
+  static int spins() {
+    return THREAD_SPINS.get().intValue();
+  }
+
+  // Wait until the flag has a given value.
+  void await(boolean v, int slot) {
+    for (int i = spins(); i > 0; i--) {
+      if (value == v) {
+        return;
+      }
+    }
+
+    /*
+    The thread is registered before the flag is checked again, so the setting
+    thread either sees it and unparks it or the thread sees the new value.
+    */
+    waiters.set(slot, Thread.currentThread());
+    while (value != v) {
+      LockSupport.park(this);
+    }
+    waiters.set(slot, null);
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+  * This class implements a sense-reversing barrier. Threads count down a
+  * shared counter and wait for the global sense to flip, spinning first and
+  * parking if the barrier isn't released soon.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public class SpinBarrier implements Barrier {
+  private int           parties;  // number of threads to release the barrier
+  private AtomicInteger count;    // threads yet to join in this episode
+  private ReleaseFlag   sense;    // global sense, flipped on release
+  private boolean       local[];  // sense of each thread
+
+  /**
+   * Constructs a new SpinBarrier for a given number of threads.
+   *
+   * @param parties  the number of threads to release the barrier
+   */
+  public SpinBarrier(int parties) {
+    this.parties = parties;
+    count        = new AtomicInteger(parties);
+    sense        = new ReleaseFlag(parties);
+    local        = new boolean[parties];
+  }
+
+  public void join(int id) {
+    boolean s = !local[id];
+    local[id] = s;
+
+    if (count.decrementAndGet() == 0) {
+      count.set(parties);
+      sense.set(s);
+    }
+    else {
+      sense.await(s, id);
+    }
+  }
+}
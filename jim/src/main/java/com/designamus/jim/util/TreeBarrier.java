@@ -0,0 +1,112 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+  * This class implements a combining tree barrier. Threads are grouped at the
+  * leaves of a tree with a small fan-in. The last thread to arrive at a node
+  * climbs to its parent, and the thread that completes the root releases the
+  * tree on the way back down. Each node is shared by a few threads only, so
+  * both arrival and release take O(log p) steps.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public class TreeBarrier implements Barrier {
+  // maximum number of children of a node
+  private static final int FAN_IN = 4;
+
+  private class Node {
+    Node          parent;
+    int           slot;   // index of the node among children of its parent
+    int           size;   // number of threads or nodes that arrive here
+    AtomicInteger count;  // arrivals yet to come in this episode
+    ReleaseFlag   sense;  // flipped when the node is released
+
+    Node(int size) {
+      this.size = size;
+      count     = new AtomicInteger(size);
+      sense     = new ReleaseFlag(size);
+    }
+  }
+
+  private Node    leaves[];  // leaf of each thread
+  private boolean local[];   // sense of each thread
+
+  /**
+   * Constructs a new TreeBarrier for a given number of threads.
+   *
+   * @param parties  the number of threads to release the barrier
+   */
+  public TreeBarrier(int parties) {
+    local  = new boolean[parties];
+    leaves = new Node[parties];
+
+    // build leaves and then levels above them up to the root
+    Node level[] = createLevel(parties);
+    for (int i = 0; i < parties; i++) {
+      leaves[i] = level[i / FAN_IN];
+    }
+
+    while (level.length > 1) {
+      Node upper[] = createLevel(level.length);
+      for (int i = 0; i < level.length; i++) {
+        level[i].parent = upper[i / FAN_IN];
+        level[i].slot   = i % FAN_IN;
+      }
+      level = upper;
+    }
+  }
+
+  // Create a level of nodes for a given number of children.
+  private Node[] createLevel(int children) {
+    Node level[] = new Node[(children + FAN_IN - 1) / FAN_IN];
+
+    for (int i = 0; i < level.length; i++) {
+      level[i] = new Node(Math.min(FAN_IN, children - i * FAN_IN));
+    }
+    return level;
+  }
+
+  public void join(int id) {
+    boolean s = !local[id];
+    local[id] = s;
+
+    arrive(leaves[id], s, id % FAN_IN);
+  }
+
+  /*
+  Arrive at a given node. The last thread to arrive continues at the parent
+  and releases the node once the parent has been released. Other threads wait
+  at the node in their slots.
+  */
+  private void arrive(Node node, boolean s, int slot) {
+    if (node.count.decrementAndGet() == 0) {
+      node.count.set(node.size);
+
+      if (node.parent != null) {
+        arrive(node.parent, s, node.slot);
+      }
+      node.sense.set(s);
+    }
+    else {
+      node.sense.await(s, slot);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 1998 Lukasz Szelag
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ 
+package com.designamus.jim.util;
+
+/**
+  * This interface is implemented by partial results of a reduction of fixed
+  * length vectors. Ranges of elements can be combined and copied on their
+  * own, so a reduction can be split between processors.
+  *
+  * @author Lukasz Szelag (luk@hades.itma.pwr.wroc.pl)
+  * @version 1.0 10/18/26
+  */
+public interface VectorAcc<A extends VectorAcc<A>> extends Acc<A> {
+  /**
+   * Returns the number of elements of the vector.
+   */
+  int length();
+
+  /**
+   * Combines elements [from, to) of this partial result with the same
+   * elements of one that follows it.
+   */
+  void combine(A right, int from, int to);
+
+  /**
+   * Combines elements [from, to) of this partial result with the same
+   * elements of one that precedes it.
+   */
+  void combineLeft(A left, int from, int to);
+
+  /**
+   * Replaces elements [from, to) of this partial result with the same
+   * elements of another one.
+   */
+  void set(A src, int from, int to);
+}